@@ -0,0 +1,109 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.entities.Monster;
+import io.squid.cytale.entities.MonsterStore;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic levels for the benchmarks
+ *
+ * @author TopeEstLa
+ */
+public final class BenchmarkLevels {
+
+    private BenchmarkLevels() {
+    }
+
+    /**
+     * Builds a size x size level with ~10% walls, ~5% coins and the given number of monsters
+     * The player spawns at 0 0
+     *
+     * @param size     width and length of the level
+     * @param monsters number of monsters to spawn on floor cells
+     * @param seed     seed of the layout and of the monsters
+     * @return the level
+     */
+    public static Level randomLevel(int size, int monsters, long seed) {
+        return randomLevel(size, monsters, seed, false);
+    }
+
+    /**
+     * Builds a size x size level with ~10% walls, ~5% coins and the given number of monsters
+     * The player spawns at 0 0
+     *
+     * @param size         width and length of the level
+     * @param monsters     number of monsters to spawn on floor cells
+     * @param seed         seed of the layout and of the monsters
+     * @param monsterStore true to spawn the monsters in the MonsterStore of the level
+     * @return the level
+     */
+    public static Level randomLevel(int size, int monsters, long seed, boolean monsterStore) {
+        SplittableRandom random = new SplittableRandom(seed);
+        PackedLevelGrid grid = new PackedLevelGrid(size, size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int roll = random.nextInt(100);
+                if (roll < 10) {
+                    grid.setType(x, y, CellType.WALL);
+                } else if (roll < 15) {
+                    grid.setCoin(x, y, true);
+                }
+            }
+        }
+        grid.setType(0, 0, CellType.FLOOR);
+
+        Level level = new Level(grid, 0, 0, new Player("bench"), seed);
+        MonsterStore store = monsterStore ? level.enableMonsterStore() : null;
+        for (int i = 0; i < monsters; i++) {
+            int x;
+            int y;
+            do {
+                x = random.nextInt(size);
+                y = random.nextInt(size);
+            } while (grid.getType(x, y) != CellType.FLOOR);
+            if (store != null) {
+                store.add(x, y, 5);
+            } else {
+                level.addEntity(new Monster(level, 5, new Location(x, y)));
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Writes a size x size text map with ~10% walls, ~5% coins and ~1% monsters
+     * The player spawns at 0 0
+     *
+     * @param file file to write
+     * @param size width and length of the map
+     * @param seed seed of the layout
+     * @throws IOException if the file can not be written
+     */
+    public static void writeRandomMap(Path file, int size, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            char[] row = new char[size];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int roll = random.nextInt(100);
+                    row[x] = roll < 10 ? '#' : roll < 15 ? '.' : roll < 16 ? 'R' : ' ';
+                }
+                if (y == 0) {
+                    row[0] = '1';
+                }
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Monster;
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.enums.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level.moovePlayer with chasing monsters against random walking ones
+ * The player moves every op, so the flow field is computed again every tick
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChaseBenchmark {
+
+    @Param({"1024"})
+    private int size;
+
+    @Param({"100000"})
+    private int monsters;
+
+    @Param({"RANDOM_WALK", "CHASE"})
+    private Behaviour behaviour;
+
+    private Level level;
+    private int step;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(this.size, this.monsters, 42L);
+        for (Entity entity : this.level.getEntities()) {
+            ((Monster) entity).setBehaviour(this.behaviour);
+        }
+    }
+
+    @Benchmark
+    public void moovePlayer() {
+        this.level.moovePlayer((this.step++ & 1) == 0 ? Direction.RIGHT : Direction.LEFT);
+    }
+}
@@ -0,0 +1,49 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level.tickLevel with the monsters kept as Monster objects or in a MonsterStore
+ * The monsters are spawned in random order, levels loaded from a file list them row by row, which is kinder to the caches
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonsterStoreBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int monsters;
+
+    @Param({"false", "true"})
+    private boolean monsterStore;
+
+    private Level level;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(2048, this.monsters, 42L, this.monsterStore);
+    }
+
+    @Benchmark
+    public void tickLevel() {
+        this.level.tickLevel();
+    }
+}
@@ -0,0 +1,51 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.enums.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level.moovePlayer, one player step followed by a tick of every monster
+ * The player goes back and forth so the benchmark does not depend on the map
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveBenchmark {
+
+    @Param({"512"})
+    private int size;
+
+    @Param({"0", "1000"})
+    private int monsters;
+
+    private Level level;
+    private int step;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(this.size, this.monsters, 42L);
+    }
+
+    @Benchmark
+    public void moovePlayer() {
+        this.level.moovePlayer((this.step++ & 1) == 0 ? Direction.RIGHT : Direction.LEFT);
+    }
+}
@@ -0,0 +1,71 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.entities.PlayerSlot;
+import io.squid.cytale.enums.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of a level shared by many players, every player queues a move before the tick
+ * Players never die so the number of moves stays the same between iterations
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiPlayerBenchmark {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"1024"})
+    private int size;
+
+    @Param({"100", "1000", "10000"})
+    private int players;
+
+    private Level level;
+    private PlayerSlot[] slots;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(this.size, 0, 42L);
+        this.random = new SplittableRandom(42L);
+        this.slots = new PlayerSlot[this.players];
+        for (int i = 0; i < this.players; i++) {
+            int x;
+            int y;
+            do {
+                x = this.random.nextInt(this.size);
+                y = this.random.nextInt(this.size);
+            } while (!this.level.getLayout().getType(x, y).isWalkable());
+            this.slots[i] = this.level.addPlayer(new Player("Player" + i, 0, Integer.MAX_VALUE), x, y);
+        }
+    }
+
+    @Benchmark
+    public void tick() {
+        for (PlayerSlot slot : this.slots) {
+            this.level.queueMove(slot, DIRECTIONS[this.random.nextInt(DIRECTIONS.length)]);
+        }
+        this.level.tickLevel();
+    }
+}
@@ -0,0 +1,77 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.level.LevelParser;
+import io.squid.cytale.level.LevelTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of large text maps, LevelParser against the former readAllLines parser
+ * The default size writes a ~100MB map, run with -prof gc to compare the allocations
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.file = Files.createTempFile("cytale-parse", ".txt");
+        BenchmarkLevels.writeRandomMap(this.file, this.size, 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public LevelTemplate mappedParser() {
+        return LevelParser.parse(this.file);
+    }
+
+    /**
+     * The parser as it was before LevelParser, one String per line and a symbol lookup per cell
+     */
+    @Benchmark
+    public CellType[][] readAllLinesParser() throws IOException {
+        List<String> lines = Files.readAllLines(this.file);
+        CellType[][] layout = new CellType[lines.size()][lines.get(0).length()];
+        for (int i = 0; i < layout.length; i++) {
+            String line = lines.get(i);
+            for (int j = 0; j < layout[i].length; j++) {
+                char symbol = line.charAt(j);
+                layout[i][j] = symbol == '1' || symbol == '.' || symbol == 'R' ? CellType.FLOOR : CellType.fromSymbol(symbol);
+            }
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,70 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level.isCompleted and Level.getEntitiesAt, both called every turn by the game
+ * Half of the looked up locations hold a monster
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"512", "4096"})
+    private int size;
+
+    @Param({"10000"})
+    private int monsters;
+
+    private Level level;
+    private Location[] lookups;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(this.size, this.monsters, 42L);
+        List<Entity> entities = this.level.getEntities();
+        SplittableRandom random = new SplittableRandom(7L);
+        this.lookups = new Location[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.lookups[i] = (i & 1) == 0
+                    ? entities.get(random.nextInt(entities.size())).getLocation().copy()
+                    : new Location(random.nextInt(this.size), random.nextInt(this.size));
+        }
+    }
+
+    @Benchmark
+    public boolean isCompleted() {
+        return this.level.isCompleted();
+    }
+
+    @Benchmark
+    public List<Entity> getEntitiesAt() {
+        return this.level.getEntitiesAt(this.lookups[this.next++ & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,46 @@
+package io.squid.cytale.benchmark;
+
+import io.squid.cytale.entities.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level.tickLevel on a level full of monsters
+ * Run with -prof gc, gc.alloc.rate.norm should stay at ~0 B/op
+ *
+ * @author TopeEstLa
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int monsters;
+
+    private Level level;
+
+    @Setup
+    public void setup() {
+        this.level = BenchmarkLevels.randomLevel(512, this.monsters, 42L);
+    }
+
+    @Benchmark
+    public void tickLevel() {
+        this.level.tickLevel();
+    }
+}
@@ -1,24 +1,112 @@
 package io.squid.cytale;
 
 
+import io.squid.cytale.engine.Autosaver;
+import io.squid.cytale.engine.InputRecorder;
+import io.squid.cytale.engine.SaveFile;
+import io.squid.cytale.entities.Entity;
 import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Monster;
 import io.squid.cytale.entities.Player;
-import io.squid.cytale.enums.Direction;
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.enums.Command;
+import io.squid.cytale.event.EventSubscriber;
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.level.LevelCache;
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.loop.ConsoleInput;
+import io.squid.cytale.loop.GameLoop;
+import io.squid.cytale.metrics.Metrics;
+import io.squid.cytale.render.AnsiRenderer;
+import io.squid.cytale.render.Renderer;
+import io.squid.cytale.render.TextRenderer;
+import io.squid.cytale.render.Viewport;
+import io.squid.cytale.tick.InterestArea;
+import io.squid.cytale.tick.ParallelTickScheduler;
+import io.squid.cytale.tick.SequentialTickScheduler;
+import io.squid.cytale.tick.TickScheduler;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Scanner;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author TopeEstLa
  */
 public class CyTaleApplication {
 
+    private static final int FRAMES_PER_SECOND = 30;
+
+    private final Renderer renderer;
+    private final TickScheduler tickScheduler;
+    private final int ticksPerSecond;
+    private final Path recordDirectory;
+    private final Behaviour monsterBehaviour;
+    private final Path saveDirectory;
+    private final int autosaveInterval;
+    private final Path metricsFile;
+    private final int interestRadius;
+    private final int farInterval;
+    private final LevelCache levelCache = new LevelCache(16);
+
+    private final EventSubscriber consoleEvents = event -> {
+        String name = event.getSource() instanceof Monster monster ? monster.getName() : "Entity";
+        System.out.printf("%s attacked Player! Player health is now %d%n", name, event.getValue());
+    };
+
+    /**
+     * Constructor for CyTaleApplication
+     * -Dcytale.renderer=ansi redraws only the cells which changed, the default plain text renderer prints every frame
+     * -Dcytale.tick=parallel ticks the monsters of large levels on the common ForkJoinPool
+     * -Dcytale.tps=N plays in real time at N ticks per second, turn based when absent
+     * -Dcytale.record=DIR records every level played in DIR, replay them with InputRecording
+     * -Dcytale.monsters=chase makes the monsters chase the player instead of walking at random
+     * -Dcytale.save=DIR autosaves every level played in DIR every -Dcytale.autosave=N ticks (100 by default),
+     * give a save file instead of a level file to resume it
+     * -Dcytale.metrics=true times parse, moves, ticks and frames, type stats to print them
+     * -Dcytale.metrics.json=FILE writes the metrics to FILE when the application stops
+     * -Dcytale.interest=R only draws the cells within R cells of the player and ticks the monsters further away
+     * every -Dcytale.interest.far=N ticks (8 by default, 0 to make them sleep until the player comes close)
+     */
+    public CyTaleApplication() {
+        this.interestRadius = Integer.getInteger("cytale.interest", -1);
+        this.farInterval = Integer.getInteger("cytale.interest.far", InterestArea.DEFAULT_FAR_INTERVAL);
+        Viewport viewport = this.interestRadius < 0 ? new Viewport(20, 10) : new Viewport(Math.min(20, this.interestRadius), Math.min(10, this.interestRadius));
+        if ("ansi".equalsIgnoreCase(System.getProperty("cytale.renderer"))) {
+            this.renderer = new AnsiRenderer(System.out, viewport);
+        } else {
+            this.renderer = new TextRenderer(System.out, viewport);
+        }
+
+        if ("parallel".equalsIgnoreCase(System.getProperty("cytale.tick"))) {
+            this.tickScheduler = new ParallelTickScheduler();
+        } else {
+            this.tickScheduler = new SequentialTickScheduler();
+        }
+
+        this.ticksPerSecond = Integer.getInteger("cytale.tps", 0);
+
+        String record = System.getProperty("cytale.record");
+        this.recordDirectory = record == null ? null : Path.of(record);
+
+        String save = System.getProperty("cytale.save");
+        this.saveDirectory = save == null ? null : Path.of(save);
+        this.autosaveInterval = Integer.getInteger("cytale.autosave", 100);
+
+        this.monsterBehaviour = "chase".equalsIgnoreCase(System.getProperty("cytale.monsters")) ? Behaviour.CHASE : Behaviour.RANDOM_WALK;
+
+        String metrics = System.getProperty("cytale.metrics.json");
+        this.metricsFile = metrics == null ? null : Path.of(metrics);
+    }
 
     public void start(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+        ConsoleInput input = new ConsoleInput(System.in);
         System.out.printf("Entrer votre pseudo : ");
-        String playerName = scanner.nextLine();
+        String playerName = input.take();
+        if (playerName == null) {
+            return;
+        }
         Player player = new Player(playerName);
 
         if (args.length == 0) {
@@ -33,7 +121,7 @@ public class CyTaleApplication {
             player.setHealth(5);
             player.setScore(0);
 
-            for (int i = 0; i < args.length; i++) { //preload level ig (?) if player die we literally recompute lmao
+            for (int i = 0; i < args.length; i++) {
                 String arg = args[i];
                 Path path = Path.of(arg);
                 if (!Files.exists(path) || Files.isDirectory(path)) {
@@ -41,44 +129,59 @@ public class CyTaleApplication {
                     return;
                 }
 
-                Level level = new Level(path, player);
-                this.printBoard(level, player);
-                boolean levelRunning = true;
-                while (levelRunning) {
-
-                    String input = scanner.nextLine();
-                    switch (input) {
-                        case "z":
-                            level.moovePlayer(Direction.TOP);
-                            break;
-                        case "q":
-                            level.moovePlayer(Direction.LEFT);
-                            break;
-                        case "s":
-                            level.moovePlayer(Direction.BOT);
-                            break;
-                        case "d":
-                            level.moovePlayer(Direction.RIGHT);
-                            break;
-                        case "exit":
-                            break globalLoop;
-                        default:
-                            System.out.println("Invalid input");
+                Level level;
+                Path levelFile;
+                InputRecorder recorder;
+                if (SaveFile.isSaveFile(path)) {
+                    // a recording replays a level from its start, resumed levels are not recorded
+                    level = SaveFile.load(path, player);
+                    levelFile = SaveFile.getLevelFile(path);
+                    recorder = null;
+                } else {
+                    long seed = ThreadLocalRandom.current().nextLong();
+                    recorder = this.startRecording(path, seed, player);
+                    LevelTemplate template = this.levelCache.get(path);
+                    if (template.getUnreachableCoins() > 0) {
+                        System.out.printf("Warning: %d coins can not be reached, the level can not be completed%n", template.getUnreachableCoins());
                     }
-
-                    this.printBoard(level, player);
-
-                    if (level.isCompleted()) {
-                        System.out.println("Level completed!");
-                        levelRunning = false;
+                    level = template.instantiate(player, seed);
+                    levelFile = path;
+                }
+                level.setInputRecorder(recorder);
+                for (Entity entity : level.getEntities()) {
+                    if (entity instanceof Monster monster) {
+                        monster.setBehaviour(this.monsterBehaviour);
                     }
+                }
+                if (i + 1 < args.length) {
+                    this.levelCache.preload(Path.of(args[i + 1]));
+                }
+                level.setTickScheduler(this.tickScheduler);
+                if (this.interestRadius >= 0) {
+                    level.setInterestArea(new InterestArea(this.interestRadius, this.farInterval));
+                }
+                level.getEvents().subscribe(this.consoleEvents, EventType.PLAYER_ATTACKED);
 
-                    if (player.isDead()) {
+                Autosaver autosaver = this.startAutosave(level, levelFile);
+                GameLoop.Outcome outcome;
+                try {
+                    outcome = this.ticksPerSecond > 0 ? this.playRealTime(level, player, input) : this.playTurnBased(level, player, input);
+                } finally {
+                    this.stopRecording(recorder);
+                    this.stopAutosave(autosaver);
+                }
+                switch (outcome) {
+                    case COMPLETED:
+                        System.out.println("Level completed!");
+                        break;
+                    case EXIT:
+                        break globalLoop;
+                    case DEAD:
                         System.out.println("You are dead! Game over.");
                         System.out.println("Final score: " + player.getScore());
                         System.out.println("Retry ? (y/n): ");
-                        String retryInput = scanner.nextLine();
-                        if (retryInput.equalsIgnoreCase("y")) {
+                        String retryInput = input.take();
+                        if (retryInput != null && retryInput.equalsIgnoreCase("y")) {
                             i = 0;
                             player.setScore(0);
                             player.setHealth(5);
@@ -86,17 +189,163 @@ public class CyTaleApplication {
                         } else {
                             break globalLoop;
                         }
-                    }
                 }
             }
             run = false;
         }
 
         System.out.printf("Merci d'avoir joué %s!%n", player.getName());
+        this.saveMetrics();
+    }
+
+    private void saveMetrics() {
+        if (this.metricsFile == null) {
+            return;
+        }
+
+        try {
+            Metrics.writeJson(this.metricsFile);
+        } catch (IOException e) {
+            System.err.println("Unable to save the metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a recording for the level about to be played, if recording is enabled
+     *
+     * @param path level file
+     * @param seed seed of the level
+     * @param player Player about to play the level
+     * @return the recorder, null if recording is disabled or the file can not be created
+     */
+    private InputRecorder startRecording(Path path, long seed, Player player) {
+        if (this.recordDirectory == null) {
+            return null;
+        }
+
+        try {
+            Files.createDirectories(this.recordDirectory);
+            Path file = this.recordDirectory.resolve(String.format("session-%d-%016x.cytr", System.currentTimeMillis(), seed));
+            return new InputRecorder(Files.newOutputStream(file), seed, path.toAbsolutePath().toString(), player.getHealth(), player.getScore(), this.monsterBehaviour,
+                    this.interestRadius < 0 ? null : new InterestArea(this.interestRadius, this.farInterval));
+        } catch (IOException e) {
+            System.err.println("Unable to record the level: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void stopRecording(InputRecorder recorder) {
+        if (recorder == null) {
+            return;
+        }
+
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Unable to save the recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts saving the level about to be played, if autosave is enabled
+     *
+     * @param level Level about to be played
+     * @param levelFile file the level was loaded from
+     * @return the autosaver, null if autosave is disabled or the file can not be created
+     */
+    private Autosaver startAutosave(Level level, Path levelFile) {
+        if (this.saveDirectory == null) {
+            return null;
+        }
+
+        try {
+            Files.createDirectories(this.saveDirectory);
+            Path file = this.saveDirectory.resolve(String.format("save-%d-%016x.cyts", System.currentTimeMillis(), level.getSeed()));
+            return new Autosaver(level, SaveFile.create(file, level, levelFile), this.autosaveInterval);
+        } catch (IOException e) {
+            System.err.println("Unable to save the level: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void stopAutosave(Autosaver autosaver) {
+        if (autosaver == null) {
+            return;
+        }
+
+        try {
+            autosaver.close();
+        } catch (IOException e) {
+            System.err.println("Unable to save the level: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plays a level turn by turn, the level only ticks when the player moves
+     *
+     * @param level Level to play
+     * @param player Player playing the level
+     * @param input lines typed by the player
+     * @return why the level stopped
+     */
+    private GameLoop.Outcome playTurnBased(Level level, Player player, ConsoleInput input) {
+        this.printBoard(level, player);
+        while (true) {
+            String line = input.take();
+            if (line == null) {
+                return GameLoop.Outcome.EXIT;
+            }
+
+            Command command = Command.fromInput(line);
+            if (command == Command.EXIT) {
+                return GameLoop.Outcome.EXIT;
+            }
+
+            if (command == Command.STATS) {
+                System.out.println(Metrics.report());
+                continue;
+            }
+
+            if (command == null) {
+                System.out.println("Invalid input");
+            } else {
+                level.moovePlayer(command.getDirection());
+            }
+
+            this.printBoard(level, player);
+
+            if (level.isCompleted()) {
+                return GameLoop.Outcome.COMPLETED;
+            }
+
+            if (player.isDead()) {
+                return GameLoop.Outcome.DEAD;
+            }
+        }
+    }
+
+    /**
+     * Plays a level in real time with a fixed timestep loop
+     * prints the tick and frame time percentiles once the level stopped
+     *
+     * @param level Level to play
+     * @param player Player playing the level
+     * @param input lines typed by the player
+     * @return why the level stopped
+     */
+    private GameLoop.Outcome playRealTime(Level level, Player player, ConsoleInput input) {
+        GameLoop loop = new GameLoop(level, input, drawn -> this.printBoard(drawn, player), this.ticksPerSecond, FRAMES_PER_SECOND);
+        GameLoop.Outcome outcome = loop.run();
+        System.out.printf("Ticks  : %s%n", loop.getTickTimes().summary());
+        System.out.printf("Frames : %s%n", loop.getFrameTimes().summary());
+        return outcome;
     }
 
     public void printBoard(Level level, Player player) {
-        level.showLayout();
-        System.out.printf("Score: %d | Health: %d%n", player.getScore(), player.getHealth());
+        long start = Metrics.start();
+        this.renderer.render(level);
+        Metrics.stop(Metrics.Timer.RENDER, start);
+        System.out.printf("Score: %d | Health: %d | Coins: %d/%d%n", player.getScore(), player.getHealth(),
+                level.getCollectedCoins(), level.getCoinIndex().getTotal());
     }
 }
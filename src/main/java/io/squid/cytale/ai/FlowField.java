@@ -0,0 +1,226 @@
+package io.squid.cytale.ai;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.grid.LevelGrid;
+
+import java.util.Arrays;
+
+/**
+ * Distance map toward a target cell (the player), shared by every chasing monster
+ * Distances are computed with a BFS over the cells a monster can walk on, going around the level like the moves do
+ * The BFS is bounded to a square window of (2 * radius + 1) cells centred on the target,
+ * so its cost does not depend on the level size, monsters outside the window do not know where the target is
+ * The map is only computed again when the target moved or the layout was invalidated,
+ * then every monster reads its next step in constant time, see nextStep
+ * update must be called on the ticking thread, the reads can happen from any thread once it returned
+ *
+ * @author TopeEstLa
+ */
+public class FlowField {
+
+    public static final int DEFAULT_RADIUS = 64;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final long NO_STEP = -1L;
+
+    private final LevelGrid layout;
+    private final int width;
+    private final int length;
+
+    private final int windowWidth;
+    private final int windowLength;
+    private final boolean wrapX;
+    private final boolean wrapY;
+
+    private final int[] distances;
+    private final int[] queue;
+
+    private int originX;
+    private int originY;
+    private int targetX = -1;
+    private int targetY = -1;
+    private boolean dirty = true;
+    private long updates;
+
+    /**
+     * Constructor for FlowField
+     * @param layout layout of the level
+     * @param radius half size of the window, the whole level is covered when it is smaller than the window
+     */
+    public FlowField(LevelGrid layout, int radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+
+        this.layout = layout;
+        this.width = layout.getWidth();
+        this.length = layout.getLength();
+        this.wrapX = 2L * radius + 1 >= this.width;
+        this.wrapY = 2L * radius + 1 >= this.length;
+        this.windowWidth = this.wrapX ? this.width : 2 * radius + 1;
+        this.windowLength = this.wrapY ? this.length : 2 * radius + 1;
+        this.distances = new int[this.windowWidth * this.windowLength];
+        this.queue = new int[this.distances.length];
+    }
+
+    /**
+     * Moves the target, the distances are computed again only if it moved or the layout was invalidated
+     * @param x X coordinate of the target
+     * @param y Y coordinate of the target
+     * @return true if the distances were computed again
+     */
+    public boolean update(int x, int y) {
+        if (!this.dirty && x == this.targetX && y == this.targetY) {
+            return false;
+        }
+
+        this.targetX = x;
+        this.targetY = y;
+        this.originX = this.wrapX ? 0 : Math.floorMod(x - (this.windowWidth >> 1), this.width);
+        this.originY = this.wrapY ? 0 : Math.floorMod(y - (this.windowLength >> 1), this.length);
+        this.dirty = false;
+        this.updates++;
+        this.compute();
+        return true;
+    }
+
+    /**
+     * Forces the next update to compute the distances again, to call when walls or traps changed
+     */
+    public void invalidate() {
+        this.dirty = true;
+    }
+
+    private void compute() {
+        Arrays.fill(this.distances, UNREACHABLE);
+        int start = this.windowIndex(this.targetX, this.targetY);
+        this.distances[start] = 0;
+        this.queue[0] = start;
+        int head = 0;
+        int tail = 1;
+
+        while (head < tail) {
+            int current = this.queue[head++];
+            int windowX = current % this.windowWidth;
+            int windowY = current / this.windowWidth;
+            int next = this.distances[current] + 1;
+
+            tail = this.visit(windowX - 1, windowY, next, tail);
+            tail = this.visit(windowX + 1, windowY, next, tail);
+            tail = this.visit(windowX, windowY - 1, next, tail);
+            tail = this.visit(windowX, windowY + 1, next, tail);
+        }
+    }
+
+    private int visit(int windowX, int windowY, int distance, int tail) {
+        if (windowX < 0 || windowX >= this.windowWidth) {
+            if (!this.wrapX) {
+                return tail;
+            }
+            windowX = Math.floorMod(windowX, this.windowWidth);
+        }
+
+        if (windowY < 0 || windowY >= this.windowLength) {
+            if (!this.wrapY) {
+                return tail;
+            }
+            windowY = Math.floorMod(windowY, this.windowLength);
+        }
+
+        int index = windowY * this.windowWidth + windowX;
+        if (this.distances[index] != UNREACHABLE) {
+            return tail;
+        }
+
+        int x = this.originX + windowX;
+        int y = this.originY + windowY;
+        if ((this.layout.getFlags(x >= this.width ? x - this.width : x, y >= this.length ? y - this.length : y) & LevelGrid.MONSTER_WALKABLE) == 0) {
+            return tail;
+        }
+
+        this.distances[index] = distance;
+        this.queue[tail] = index;
+        return tail + 1;
+    }
+
+    private int windowIndex(int x, int y) {
+        int windowX = x - this.originX;
+        if (windowX < 0) {
+            windowX += this.width;
+        }
+
+        int windowY = y - this.originY;
+        if (windowY < 0) {
+            windowY += this.length;
+        }
+
+        if (windowX >= this.windowWidth || windowY >= this.windowLength) {
+            return -1;
+        }
+        return windowY * this.windowWidth + windowX;
+    }
+
+    /**
+     * Gets the number of steps from x y to the target
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return distance, UNREACHABLE if the target can not be reached inside the window
+     */
+    public int getDistance(int x, int y) {
+        int index = this.windowIndex(x, y);
+        return index < 0 ? UNREACHABLE : this.distances[index];
+    }
+
+    /**
+     * Gets the neighbour of x y closest to the target
+     * Ties are broken in a fixed order (left, right, top, bottom) so the result is deterministic
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return neighbour packed with Location.pack, x y itself when standing on the target,
+     * NO_STEP if the target can not be reached inside the window
+     */
+    public long nextStep(int x, int y) {
+        int distance = this.getDistance(x, y);
+        if (distance == UNREACHABLE) {
+            return NO_STEP;
+        }
+
+        int left = x == 0 ? this.width - 1 : x - 1;
+        int right = x == this.width - 1 ? 0 : x + 1;
+        int top = y == 0 ? this.length - 1 : y - 1;
+        int bottom = y == this.length - 1 ? 0 : y + 1;
+
+        long best = Location.pack(x, y);
+        if (this.getDistance(left, y) < distance) {
+            distance = this.getDistance(left, y);
+            best = Location.pack(left, y);
+        }
+        if (this.getDistance(right, y) < distance) {
+            distance = this.getDistance(right, y);
+            best = Location.pack(right, y);
+        }
+        if (this.getDistance(x, top) < distance) {
+            distance = this.getDistance(x, top);
+            best = Location.pack(x, top);
+        }
+        if (this.getDistance(x, bottom) < distance) {
+            best = Location.pack(x, bottom);
+        }
+        return best;
+    }
+
+    /**
+     * Gets the number of times the distances were computed
+     * @return updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+}
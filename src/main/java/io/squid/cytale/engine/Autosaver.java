@@ -0,0 +1,111 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.event.EventSubscriber;
+import io.squid.cytale.event.LevelEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a level every few ticks without stalling it
+ * The snapshot is captured at the end of the tick, see GameSnapshot.capture, then written on a background thread
+ * Snapshots are written in capture order, a slow disk only delays the writes
+ * Every COMPACT_INTERVAL saves a full snapshot replaces the journal so the save file does not grow forever
+ *
+ * @author TopeEstLa
+ */
+public class Autosaver implements EventSubscriber, Closeable {
+
+    public static final int COMPACT_INTERVAL = 32;
+
+    private final Level level;
+    private final SaveFile saveFile;
+    private final int interval;
+    private final ExecutorService writer;
+    private int saves;
+
+    private volatile IOException failure;
+
+    /**
+     * Constructor for Autosaver
+     * Subscribes to the events of the level, close stops saving
+     *
+     * @param level    Level to save
+     * @param saveFile file receiving the snapshots, closed by close
+     * @param interval number of ticks between two saves
+     */
+    public Autosaver(Level level, SaveFile saveFile, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Autosave interval must be positive");
+        }
+
+        this.level = level;
+        this.saveFile = saveFile;
+        this.interval = interval;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cytale-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.level.getEvents().subscribeBatchEnd(this);
+    }
+
+    @Override
+    public void onEvent(LevelEvent event) {
+    }
+
+    @Override
+    public void onBatchEnd(long tick) {
+        if ((tick + 1) % this.interval == 0) {
+            this.save();
+        }
+    }
+
+    /**
+     * Captures the level now and queues the write
+     * Must be called on the thread ticking the level
+     */
+    public void save() {
+        GameSnapshot snapshot = GameSnapshot.capture(this.level, ++this.saves % COMPACT_INTERVAL == 0);
+        this.writer.execute(() -> {
+            try {
+                this.saveFile.write(snapshot);
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        });
+    }
+
+    /**
+     * Gets the last error met while writing
+     * @return the error, null if every snapshot was written
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Saves the level a last time, waits for the pending writes then closes the save file
+     * @throws IOException if a snapshot could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        this.level.getEvents().unsubscribe(this);
+        this.save();
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.saveFile.close();
+
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.loop.GameLoop;
+
+import java.util.List;
+
+/**
+ * Results of a batch of headless games
+ *
+ * @param results result of every game, in game order
+ * @param elapsedNanos wall clock time of the batch
+ * @param threads number of threads which played the games
+ * @author TopeEstLa
+ */
+public record BatchReport(List<GameResult> results, long elapsedNanos, int threads) {
+
+    /**
+     * Gets the number of games which stopped for the given reason
+     * @param outcome reason to count
+     * @return number of games
+     */
+    public int count(GameLoop.Outcome outcome) {
+        int count = 0;
+        for (GameResult result : this.results) {
+            if (result.outcome() == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of ticks played by every game
+     * @return total ticks
+     */
+    public long totalTicks() {
+        long ticks = 0;
+        for (GameResult result : this.results) {
+            ticks += result.ticks();
+        }
+        return ticks;
+    }
+
+    /**
+     * Gets the throughput of the batch
+     * @return games played per second
+     */
+    public double gamesPerSecond() {
+        return this.results.size() * 1e9 / Math.max(1, this.elapsedNanos);
+    }
+
+    /**
+     * Gets the simulation speed of the batch
+     * @return ticks played per second, all games together
+     */
+    public double ticksPerSecond() {
+        return this.totalTicks() * 1e9 / Math.max(1, this.elapsedNanos);
+    }
+
+    /**
+     * One line summary
+     * @return games, throughput and outcomes
+     */
+    public String summary() {
+        return String.format("%d games on %d threads in %.2fs: %.0f games/s, %.0f ticks/s (completed %d, dead %d, stopped %d)",
+                this.results.size(), this.threads, this.elapsedNanos / 1e9, this.gamesPerSecond(), this.ticksPerSecond(),
+                this.count(GameLoop.Outcome.COMPLETED), this.count(GameLoop.Outcome.DEAD), this.count(GameLoop.Outcome.EXIT));
+    }
+}
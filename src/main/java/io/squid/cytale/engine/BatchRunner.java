@@ -0,0 +1,129 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.level.LevelTemplate;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Plays many independent headless games on a fixed pool of threads
+ * Each thread takes the next game to play until every game is played, so slow games do not hold the others back
+ * usage : BatchRunner <level> <games> [threads] [maxTicks], plays random bots and prints the throughput
+ * game i is seeded with i, so the bots play the same games on every run
+ *
+ * @author TopeEstLa
+ */
+public class BatchRunner {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int threads;
+
+    /**
+     * Constructor for BatchRunner
+     * One thread per available processor
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for BatchRunner
+     * @param threads number of games played at the same time
+     */
+    public BatchRunner(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchRunner <level> <games> [threads] [maxTicks]");
+            return;
+        }
+
+        LevelTemplate template = LevelTemplate.load(Path.of(args[0]));
+        int games = Integer.parseInt(args[1]);
+        BatchRunner runner = args.length > 2 ? new BatchRunner(Integer.parseInt(args[2])) : new BatchRunner();
+        int maxTicks = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        BatchReport report = runner.run(games, game -> template.instantiate(new Player("Bot" + game), game), BatchRunner::randomMoves, maxTicks);
+        System.out.println(report.summary());
+    }
+
+    /**
+     * Plays every game and waits for the last one
+     * Throw IllegalStateException if a game failed
+     *
+     * @param games number of games
+     * @param levels creates the level of a game from its index, called on the thread playing the game
+     * @param moves creates the moves of a game from its index
+     * @param maxTicks tick budget of each game
+     * @return results in game order and throughput
+     */
+    public BatchReport run(int games, IntFunction<Level> levels, IntFunction<Iterator<Direction>> moves, int maxTicks) {
+        GameResult[] results = new GameResult[games];
+        AtomicInteger nextGame = new AtomicInteger();
+        Callable<Void> worker = () -> {
+            int game;
+            while ((game = nextGame.getAndIncrement()) < games) {
+                results[game] = HeadlessEngine.play(levels.apply(game), moves.apply(game), maxTicks, false);
+            }
+            return null;
+        };
+
+        int workers = Math.min(this.threads, Math.max(1, games));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> future : pool.invokeAll(Collections.nCopies(workers, worker))) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new BatchReport(List.of(results), System.nanoTime() - start, workers);
+    }
+
+    /**
+     * Endless random moves, the same for a given game index
+     *
+     * @param game index of the game
+     * @return random moves
+     */
+    public static Iterator<Direction> randomMoves(int game) {
+        SplittableRandom random = new SplittableRandom(game);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Direction next() {
+                return DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package io.squid.cytale.engine;
+
+/**
+ * Something which happened to the player during a headless game
+ *
+ * @param type what happened
+ * @param tick tick of the game, starting at 0
+ * @param x X coordinate of the coin, the trap or the attacker
+ * @param y Y coordinate of the coin, the trap or the attacker
+ * @author TopeEstLa
+ */
+public record GameEvent(Type type, int tick, int x, int y) {
+
+    /**
+     * Kinds of events
+     */
+    public enum Type {
+        COIN_COLLECTED,
+        TRAP_TRIGGERED,
+        PLAYER_ATTACKED,
+    }
+}
@@ -0,0 +1,23 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.loop.GameLoop;
+
+import java.util.List;
+
+/**
+ * State of a headless game once it stopped
+ *
+ * @param outcome why the game stopped, EXIT when the moves or the tick budget ran out
+ * @param ticks number of ticks played
+ * @param score final score of the player
+ * @param health final health of the player
+ * @param coinsCollected coins collected during the game
+ * @param coinsRemaining coins left in the level
+ * @param trapsTriggered traps the player walked on
+ * @param attacks attacks received by the player
+ * @param events every event in order, empty unless recorded
+ * @author TopeEstLa
+ */
+public record GameResult(GameLoop.Outcome outcome, int ticks, int score, int health, int coinsCollected,
+                         int coinsRemaining, int trapsTriggered, int attacks, List<GameEvent> events) {
+}
@@ -0,0 +1,299 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Monster;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.entities.StoredMonster;
+import io.squid.cytale.grid.CopyOnWriteLevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * State of a level at the end of a tick, written to a SaveFile
+ * Holds the first player, every entity and the layout pages written since the previous snapshot of the level
+ * Capturing only copies that state so it can be written on another thread while the level keeps ticking
+ * Pages are written as the cells which differ from the template, a collected coin costs a few bytes
+ *
+ * @author TopeEstLa
+ */
+public final class GameSnapshot {
+
+    private static final int NO_HEALTH = -1;
+
+    private final long tick;
+    private final int score;
+    private final int health;
+    private final int playerX;
+    private final int playerY;
+    private final int[] entities;
+    private final int[] pages;
+    private final byte[][] cells;
+    private final boolean full;
+
+    private GameSnapshot(long tick, int score, int health, int playerX, int playerY, int[] entities, int[] pages, byte[][] cells, boolean full) {
+        this.tick = tick;
+        this.score = score;
+        this.health = health;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.entities = entities;
+        this.pages = pages;
+        this.cells = cells;
+        this.full = full;
+    }
+
+    /**
+     * Captures the state of a level, on the thread ticking it
+     * The dirty pages of the layout are taken, the next snapshot only holds the pages written after this one
+     * Throw IllegalArgumentException if the level was not created from a LevelTemplate
+     *
+     * @param level Level to capture
+     * @return snapshot of the level
+     */
+    public static GameSnapshot capture(Level level) {
+        return capture(level, false);
+    }
+
+    /**
+     * Captures the state of a level, on the thread ticking it
+     * A full snapshot holds every page which differs from the template, it replaces the previous snapshots of a SaveFile
+     * Throw IllegalArgumentException if the level was not created from a LevelTemplate
+     *
+     * @param level Level to capture
+     * @param full  true to capture every copied page, false for the pages written since the previous snapshot
+     * @return snapshot of the level
+     */
+    public static GameSnapshot capture(Level level, boolean full) {
+        CopyOnWriteLevelGrid layout = layoutOf(level);
+        Player player = level.getPlayer();
+
+        int[] entities = new int[level.getEntityCount() * 3];
+        int next = 0;
+        for (Entity entity : level.getEntities()) {
+            entities[next++] = entity.getX();
+            entities[next++] = entity.getY();
+            if (entity instanceof Monster monster) {
+                entities[next++] = monster.getHealth();
+            } else {
+                entities[next++] = entity instanceof StoredMonster stored ? stored.getHealth() : NO_HEALTH;
+            }
+        }
+
+        int[] pages = layout.takeDirtyPages();
+        if (full) {
+            int copied = 0;
+            pages = new int[layout.getPageCount()];
+            for (int i = 0; i < pages.length; i++) {
+                if (layout.isPageCopied(i)) {
+                    pages[copied++] = i;
+                }
+            }
+            pages = Arrays.copyOf(pages, copied);
+        }
+
+        byte[][] cells = new byte[pages.length][];
+        for (int i = 0; i < pages.length; i++) {
+            cells[i] = layout.copyPage(pages[i]);
+        }
+        return new GameSnapshot(level.getTick(), player.getScore(), player.getHealth(), player.getX(), player.getY(), entities, pages, cells, full);
+    }
+
+    /**
+     * Restores the snapshot into a level created from the same template
+     * Pages missing from the snapshot are left untouched, apply the snapshots of a save in order
+     * Throw IllegalArgumentException if the level does not match the snapshot
+     *
+     * @param level Level to restore
+     */
+    public void applyTo(Level level) {
+        CopyOnWriteLevelGrid layout = layoutOf(level);
+        if (level.getEntityCount() * 3 != this.entities.length) {
+            throw new IllegalArgumentException("Snapshot has " + this.entities.length / 3 + " entities, level has " + level.getEntityCount());
+        }
+
+        for (int i = 0; i < this.pages.length; i++) {
+            if (this.pages[i] >= layout.getPageCount()) {
+                throw new IllegalArgumentException("Page " + this.pages[i] + " is out of the level");
+            }
+
+            int start = this.pages[i] << CopyOnWriteLevelGrid.PAGE_SHIFT;
+            for (int j = 0; j < this.cells[i].length; j++) {
+                layout.setRaw(start + j, this.cells[i][j]);
+            }
+        }
+
+        int next = 0;
+        for (Entity entity : level.getEntities()) {
+            if (entity instanceof StoredMonster stored) {
+                stored.setLocation(this.entities[next], this.entities[next + 1]);
+                stored.setHealth(this.entities[next + 2]);
+                next += 3;
+                continue;
+            }
+
+            int oldX = entity.getX();
+            int oldY = entity.getY();
+            entity.getLocation().set(this.entities[next], this.entities[next + 1]);
+            level.getEntityIndex().move(entity, oldX, oldY);
+            if (entity instanceof Monster monster && this.entities[next + 2] != NO_HEALTH) {
+                monster.setHealth(this.entities[next + 2]);
+            }
+            next += 3;
+        }
+
+        Player player = level.getPlayer();
+        player.setScore(this.score);
+        player.setHealth(this.health);
+        level.setPlayerLocation(level.getPlayerSlot(0), this.playerX, this.playerY);
+        level.setTick(this.tick);
+    }
+
+    /**
+     * Writes the snapshot, pages are diffed against the base of the level
+     * tick, score, health, player x y, entity count, entities (x y health varints),
+     * page count, pages (index varint, diff count varint, diffs (offset gap varint, cell byte))
+     *
+     * @param out  output receiving the snapshot
+     * @param base template layout of the level
+     */
+    void write(DataOutput out, PackedLevelGrid base) throws IOException {
+        out.writeLong(this.tick);
+        out.writeInt(this.score);
+        out.writeInt(this.health);
+        writeVarint(out, this.playerX);
+        writeVarint(out, this.playerY);
+
+        writeVarint(out, this.entities.length / 3);
+        for (int i = 0; i < this.entities.length; i += 3) {
+            writeVarint(out, this.entities[i]);
+            writeVarint(out, this.entities[i + 1]);
+            writeVarint(out, this.entities[i + 2] + 1);
+        }
+
+        writeVarint(out, this.pages.length);
+        for (int i = 0; i < this.pages.length; i++) {
+            int start = this.pages[i] << CopyOnWriteLevelGrid.PAGE_SHIFT;
+            byte[] page = this.cells[i];
+            int diffs = 0;
+            for (int j = 0; j < page.length; j++) {
+                if (page[j] != base.getRaw(start + j)) {
+                    diffs++;
+                }
+            }
+
+            writeVarint(out, this.pages[i]);
+            writeVarint(out, diffs);
+            int previous = 0;
+            for (int j = 0; j < page.length; j++) {
+                if (page[j] != base.getRaw(start + j)) {
+                    writeVarint(out, j - previous);
+                    out.writeByte(page[j]);
+                    previous = j;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot written by write
+     * Throw IllegalArgumentException if the snapshot does not fit the base
+     *
+     * @param in   input holding the snapshot
+     * @param base template layout of the level
+     * @return snapshot
+     */
+    static GameSnapshot read(DataInput in, PackedLevelGrid base) throws IOException {
+        long tick = in.readLong();
+        int score = in.readInt();
+        int health = in.readInt();
+        int playerX = readVarint(in);
+        int playerY = readVarint(in);
+
+        int[] entities = new int[readVarint(in) * 3];
+        for (int i = 0; i < entities.length; i += 3) {
+            entities[i] = readVarint(in);
+            entities[i + 1] = readVarint(in);
+            entities[i + 2] = readVarint(in) - 1;
+        }
+
+        int cellCount = base.getWidth() * base.getLength();
+        int[] pages = new int[readVarint(in)];
+        byte[][] cells = new byte[pages.length][];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = readVarint(in);
+            int start = pages[i] << CopyOnWriteLevelGrid.PAGE_SHIFT;
+            if (start < 0 || start >= cellCount) {
+                throw new IllegalArgumentException("Page " + pages[i] + " is out of the level");
+            }
+
+            byte[] page = new byte[Math.min(CopyOnWriteLevelGrid.PAGE_SIZE, cellCount - start)];
+            for (int j = 0; j < page.length; j++) {
+                page[j] = base.getRaw(start + j);
+            }
+
+            int diffs = readVarint(in);
+            int offset = 0;
+            for (int j = 0; j < diffs; j++) {
+                offset += readVarint(in);
+                if (offset >= page.length) {
+                    throw new IllegalArgumentException("Cell " + offset + " is out of page " + pages[i]);
+                }
+                page[offset] = in.readByte();
+            }
+            cells[i] = page;
+        }
+        return new GameSnapshot(tick, score, health, playerX, playerY, entities, pages, cells, false);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Checks if the snapshot holds every page which differs from the template
+     * @return true for a full snapshot
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Gets the number of layout pages held by the snapshot
+     * @return dirty pages captured
+     */
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    private static CopyOnWriteLevelGrid layoutOf(Level level) {
+        if (!(level.getLayout() instanceof CopyOnWriteLevelGrid layout)) {
+            throw new IllegalArgumentException("Only levels created from a template can be saved");
+        }
+        return layout;
+    }
+
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int read = in.readUnsignedByte();
+            value |= (read & 0x7F) << shift;
+            if ((read & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,124 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.event.EventSubscriber;
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.event.LevelEvent;
+import io.squid.cytale.loop.GameLoop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Plays a level without console, as fast as possible
+ * Every move is applied then the level ticks, like the turn based mode, a null move only ticks the level
+ * The game stops when the level is completed, the player dies, or the moves or the tick budget run out
+ * Nothing is printed, games are independent and can be played on different threads
+ *
+ * @author TopeEstLa
+ */
+public final class HeadlessEngine {
+
+    private HeadlessEngine() {
+    }
+
+    /**
+     * Plays a level until it stops, without recording the events
+     *
+     * @param level Level to play
+     * @param moves moves of the player
+     * @return final state of the game
+     */
+    public static GameResult play(Level level, Iterable<Direction> moves) {
+        return play(level, moves.iterator(), Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Plays a level until it stops
+     * The other subscribers of the level still receive its events
+     *
+     * @param level Level to play
+     * @param moves moves of the player, null to wait a tick
+     * @param maxTicks tick budget
+     * @param recordEvents true to return every event, only counts are kept otherwise
+     * @return final state of the game
+     */
+    public static GameResult play(Level level, Iterator<Direction> moves, int maxTicks, boolean recordEvents) {
+        Recorder recorder = new Recorder(level.getTick(), recordEvents);
+        level.getEvents().subscribe(recorder, EventType.COIN_COLLECTED, EventType.TRAP_TRIGGERED, EventType.PLAYER_ATTACKED);
+
+        Player player = level.getPlayer();
+        GameLoop.Outcome outcome = GameLoop.Outcome.EXIT;
+        int ticks = 0;
+        try {
+            while (ticks < maxTicks && moves.hasNext()) {
+                Direction move = moves.next();
+                if (move != null) {
+                    level.stepPlayer(move);
+                }
+                level.tickLevel();
+                ticks++;
+
+                if (level.isCompleted()) {
+                    outcome = GameLoop.Outcome.COMPLETED;
+                    break;
+                }
+
+                if (player.isDead()) {
+                    outcome = GameLoop.Outcome.DEAD;
+                    break;
+                }
+            }
+        } finally {
+            level.getEvents().unsubscribe(recorder);
+        }
+
+        List<GameEvent> events = recordEvents ? Collections.unmodifiableList(recorder.events) : List.of();
+        return new GameResult(outcome, ticks, player.getScore(), player.getHealth(), level.getCollectedCoins(),
+                level.getRemainingCoins(), recorder.traps, recorder.attacks, events);
+    }
+
+    /**
+     * Counts the events, and keeps them when asked to
+     */
+    private static final class Recorder implements EventSubscriber {
+
+        private final long startTick;
+        private final List<GameEvent> events;
+
+        private int traps;
+        private int attacks;
+
+        private Recorder(long startTick, boolean record) {
+            this.startTick = startTick;
+            this.events = record ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public void onEvent(LevelEvent event) {
+            GameEvent.Type type;
+            switch (event.getType()) {
+                case COIN_COLLECTED -> type = GameEvent.Type.COIN_COLLECTED;
+                case TRAP_TRIGGERED -> {
+                    this.traps++;
+                    type = GameEvent.Type.TRAP_TRIGGERED;
+                }
+                case PLAYER_ATTACKED -> {
+                    this.attacks++;
+                    type = GameEvent.Type.PLAYER_ATTACKED;
+                }
+                default -> {
+                    return;
+                }
+            }
+
+            if (this.events != null) {
+                this.events.add(new GameEvent(type, (int) (event.getTick() - this.startTick), event.getX(), event.getY()));
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.tick.InterestArea;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the moves of a game, one entry per tick, see Level.setInputRecorder and InputRecording
+ * Header : magic "CYTR", version byte, seed long, player health int, player score int, level path (modified UTF-8),
+ *          monster Behaviour ordinal byte (since version 2),
+ *          interest radius int, -1 without interest area, and far interval int (since version 3)
+ * Moves  : runs of identical ticks, one byte per run
+ *          bits 0-2 : Direction ordinal, WAIT when the player did not move
+ *          bits 3-7 : run length - 1, or 31 followed by a varint of run length - 32
+ * The file ends with the last run, written by close
+ *
+ * @author TopeEstLa
+ */
+public class InputRecorder implements Closeable {
+
+    public static final byte[] MAGIC = "CYTR".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 3;
+    public static final int WAIT = 4;
+
+    static final int CODE_MASK = 0x07;
+    static final int RUN_SHIFT = 3;
+    static final int LONG_RUN = 31;
+
+    private final DataOutputStream out;
+
+    private int code = -1;
+    private int run;
+    private long ticks;
+
+    /**
+     * Constructor for InputRecorder, for levels whose monsters walk at random
+     * The header is written right away
+     *
+     * @param out stream receiving the recording, closed by close
+     * @param seed seed of the recorded level
+     * @param level path of the recorded level file
+     * @param health health of the player when the level starts
+     * @param score score of the player when the level starts
+     * @throws IOException if the header can not be written
+     */
+    public InputRecorder(OutputStream out, long seed, String level, int health, int score) throws IOException {
+        this(out, seed, level, health, score, Behaviour.RANDOM_WALK);
+    }
+
+    /**
+     * Constructor for InputRecorder
+     * The header is written right away
+     *
+     * @param out stream receiving the recording, closed by close
+     * @param seed seed of the recorded level
+     * @param level path of the recorded level file
+     * @param health health of the player when the level starts
+     * @param score score of the player when the level starts
+     * @param behaviour behaviour given to every monster of the recorded level
+     * @throws IOException if the header can not be written
+     */
+    public InputRecorder(OutputStream out, long seed, String level, int health, int score, Behaviour behaviour) throws IOException {
+        this(out, seed, level, health, score, behaviour, null);
+    }
+
+    /**
+     * Constructor for InputRecorder
+     * The header is written right away
+     *
+     * @param out stream receiving the recording, closed by close
+     * @param seed seed of the recorded level
+     * @param level path of the recorded level file
+     * @param health health of the player when the level starts
+     * @param score score of the player when the level starts
+     * @param behaviour behaviour given to every monster of the recorded level
+     * @param interest interest area of the recorded level, null if none
+     * @throws IOException if the header can not be written
+     */
+    public InputRecorder(OutputStream out, long seed, String level, int health, int score, Behaviour behaviour, InterestArea interest) throws IOException {
+        if (behaviour == null) {
+            throw new IllegalArgumentException("Behaviour cannot be null");
+        }
+
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(seed);
+        this.out.writeInt(health);
+        this.out.writeInt(score);
+        this.out.writeUTF(level);
+        this.out.writeByte(behaviour.ordinal());
+        this.out.writeInt(interest == null ? -1 : interest.getRadius());
+        this.out.writeInt(interest == null ? 0 : interest.getFarInterval());
+    }
+
+    /**
+     * Records a tick
+     * Throw UncheckedIOException if the recording can not be written
+     *
+     * @param move move of the player during the tick, null if the player did not move
+     */
+    public void record(Direction move) {
+        int next = move == null ? WAIT : move.ordinal();
+        this.ticks++;
+        if (next == this.code && this.run < Integer.MAX_VALUE) {
+            this.run++;
+            return;
+        }
+
+        this.flush();
+        this.code = next;
+        this.run = 1;
+    }
+
+    private void flush() {
+        if (this.run == 0) {
+            return;
+        }
+
+        try {
+            if (this.run - 1 < LONG_RUN) {
+                this.out.writeByte(this.code | ((this.run - 1) << RUN_SHIFT));
+            } else {
+                this.out.writeByte(this.code | (LONG_RUN << RUN_SHIFT));
+                int rest = this.run - LONG_RUN - 1;
+                while ((rest & ~0x7F) != 0) {
+                    this.out.writeByte((rest & 0x7F) | 0x80);
+                    rest >>>= 7;
+                }
+                this.out.writeByte(rest);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing recording", e);
+        }
+        this.run = 0;
+    }
+
+    /**
+     * Gets the number of recorded ticks
+     * @return ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Writes the last run and closes the stream
+     * @throws IOException if the recording can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.out.close();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Monster;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.tick.InterestArea;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Recording written by InputRecorder, replayed headlessly as fast as possible
+ * The level is created again from its file and seed, the same version of the game gives the same result
+ * usage : InputRecording <recording>..., replays every recording and prints its result
+ *
+ * @author TopeEstLa
+ */
+public final class InputRecording {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Behaviour[] BEHAVIOURS = Behaviour.values();
+
+    private final long seed;
+    private final int health;
+    private final int score;
+    private final String level;
+    private final Behaviour behaviour;
+    private final int interestRadius;
+    private final int farInterval;
+    private final byte[] moves;
+    private final long ticks;
+
+    private InputRecording(long seed, int health, int score, String level, Behaviour behaviour, int interestRadius, int farInterval, byte[] moves, long ticks) {
+        this.seed = seed;
+        this.health = health;
+        this.score = score;
+        this.level = level;
+        this.behaviour = behaviour;
+        this.interestRadius = interestRadius;
+        this.farInterval = farInterval;
+        this.moves = moves;
+        this.ticks = ticks;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: InputRecording <recording>...");
+            return;
+        }
+
+        for (String arg : args) {
+            InputRecording recording = read(Path.of(arg));
+            long start = System.nanoTime();
+            GameResult result = recording.replay(false);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %s after %d ticks, score %d, health %d, coins %d (%.0f ticks/s)%n", arg, result.outcome(),
+                    result.ticks(), result.score(), result.health(), result.coinsCollected(), result.ticks() * 1e9 / Math.max(1, elapsed));
+        }
+    }
+
+    /**
+     * Reads a recording file
+     * Throw IllegalArgumentException if the file is not a valid recording
+     *
+     * @param file recording to read
+     * @return the recording
+     */
+    public static InputRecording read(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a recording from a stream
+     * Throw IllegalArgumentException if the stream is not a valid recording
+     *
+     * @param stream recording to read, not closed
+     * @return the recording
+     * @throws IOException if the stream can not be read
+     */
+    public static InputRecording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = in.readNBytes(InputRecorder.MAGIC.length);
+        if (!Arrays.equals(magic, InputRecorder.MAGIC)) {
+            throw new IllegalArgumentException("Not a CyTale recording");
+        }
+
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > InputRecorder.VERSION) {
+            throw new IllegalArgumentException("Unsupported recording version: " + version);
+        }
+
+        long seed = in.readLong();
+        int health = in.readInt();
+        int score = in.readInt();
+        String level = in.readUTF();
+        // version 1 recordings were only made with random walking monsters
+        Behaviour behaviour = Behaviour.RANDOM_WALK;
+        if (version >= 2) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= BEHAVIOURS.length) {
+                throw new IllegalArgumentException("Unknown monster behaviour: " + ordinal);
+            }
+            behaviour = BEHAVIOURS[ordinal];
+        }
+        int interestRadius = -1;
+        int farInterval = 0;
+        if (version >= 3) {
+            interestRadius = in.readInt();
+            farInterval = in.readInt();
+            if (interestRadius < -1 || farInterval < 0) {
+                throw new IllegalArgumentException("Invalid interest area: " + interestRadius + " " + farInterval);
+            }
+        }
+        byte[] moves = in.readAllBytes();
+
+        long ticks = 0;
+        for (Runs runs = new Runs(moves); runs.next(); ) {
+            ticks += runs.run;
+        }
+        return new InputRecording(seed, health, score, level, behaviour, interestRadius, farInterval, moves, ticks);
+    }
+
+    /**
+     * Creates the recorded level again, with the recorded seed, player state, monster behaviour and interest area
+     *
+     * @return level ready to replay
+     */
+    public Level instantiate() {
+        Player player = new Player("Replay", this.score, this.health);
+        Level level = LevelTemplate.load(Path.of(this.level)).instantiate(player, this.seed);
+        for (Entity entity : level.getEntities()) {
+            if (entity instanceof Monster monster) {
+                monster.setBehaviour(this.behaviour);
+            }
+        }
+        if (this.interestRadius >= 0) {
+            level.setInterestArea(new InterestArea(this.interestRadius, this.farInterval));
+        }
+        return level;
+    }
+
+    /**
+     * Replays the recording on a new level
+     *
+     * @param recordEvents true to return every event
+     * @return final state of the game
+     */
+    public GameResult replay(boolean recordEvents) {
+        return HeadlessEngine.play(this.instantiate(), this.moves(), Integer.MAX_VALUE, recordEvents);
+    }
+
+    /**
+     * Gets the recorded moves, one per tick, null when the player did not move
+     *
+     * @return moves in order
+     */
+    public Iterator<Direction> moves() {
+        Runs runs = new Runs(this.moves);
+        return new Iterator<>() {
+
+            private long left;
+
+            @Override
+            public boolean hasNext() {
+                return this.left > 0 || runs.next() && (this.left = runs.run) > 0;
+            }
+
+            @Override
+            public Direction next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.left--;
+                return runs.code == InputRecorder.WAIT ? null : DIRECTIONS[runs.code];
+            }
+        };
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public Behaviour getBehaviour() {
+        return behaviour;
+    }
+
+    /**
+     * Gets the radius of the recorded interest area
+     *
+     * @return radius, -1 if the level was played without interest area
+     */
+    public int getInterestRadius() {
+        return interestRadius;
+    }
+
+    public int getFarInterval() {
+        return farInterval;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Decoder of the runs of the recording
+     */
+    private static final class Runs {
+
+        private final byte[] data;
+        private int position;
+
+        private int code;
+        private long run;
+
+        private Runs(byte[] data) {
+            this.data = data;
+        }
+
+        private boolean next() {
+            if (this.position == this.data.length) {
+                return false;
+            }
+
+            int header = this.data[this.position++] & 0xFF;
+            this.code = header & InputRecorder.CODE_MASK;
+            if (this.code > InputRecorder.WAIT) {
+                throw new IllegalArgumentException("Corrupted recording at byte " + (this.position - 1));
+            }
+
+            int length = header >>> InputRecorder.RUN_SHIFT;
+            this.run = length + 1;
+            if (length == InputRecorder.LONG_RUN) {
+                long rest = 0;
+                int shift = 0;
+                int read;
+                do {
+                    if (this.position == this.data.length || shift > 28) {
+                        throw new IllegalArgumentException("Corrupted recording at byte " + this.position);
+                    }
+                    read = this.data[this.position++] & 0xFF;
+                    rest |= (long) (read & 0x7F) << shift;
+                    shift += 7;
+                } while ((read & 0x80) != 0);
+                this.run += rest;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.grid.CopyOnWriteLevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
+import io.squid.cytale.level.LevelTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Journal of GameSnapshot of a level
+ * Header  : magic "CYTS", version byte, seed long, level path (modified UTF-8)
+ * Records : snapshot length int, snapshot, see GameSnapshot.write
+ * Every record only holds the pages written since the previous one, load applies them in order
+ * Records are forced to disk once written, a record cut by a crash is ignored by load
+ * A full snapshot compacts the journal: it is written to a new file which atomically replaces the old one
+ *
+ * @author TopeEstLa
+ */
+public class SaveFile implements Closeable {
+
+    public static final byte[] MAGIC = "CYTS".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+
+    private final Path file;
+    private final byte[] header;
+    private final PackedLevelGrid base;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private long records;
+
+    private SaveFile(Path file, byte[] header, PackedLevelGrid base) throws IOException {
+        this.file = file;
+        this.header = header;
+        this.base = base;
+        this.channel = open(file);
+        this.append(header);
+    }
+
+    /**
+     * Creates a save file for a level, replacing the file if it exists
+     * Throw IllegalArgumentException if the level was not created from a LevelTemplate
+     *
+     * @param file      file to create
+     * @param level     Level to save
+     * @param levelFile file the level was loaded from
+     * @return SaveFile ready to receive snapshots
+     * @throws IOException if the file can not be created
+     */
+    public static SaveFile create(Path file, Level level, Path levelFile) throws IOException {
+        if (!(level.getLayout() instanceof CopyOnWriteLevelGrid layout)) {
+            throw new IllegalArgumentException("Only levels created from a template can be saved");
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(level.getSeed());
+        out.writeUTF(levelFile.toAbsolutePath().toString());
+
+        return new SaveFile(file, header.toByteArray(), layout.getBase());
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Checks if a file starts with the save file magic
+     *
+     * @param file file to check
+     * @return true if the file is a save file
+     */
+    public static boolean isSaveFile(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the level file a save file was created for
+     * Throw IllegalArgumentException if the file is not a save file
+     *
+     * @param file save file
+     * @return level file
+     */
+    public static Path getLevelFile(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            readHeader(in, file);
+            in.readLong();
+            return Path.of(in.readUTF());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading save file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recreates a saved level: the level file is loaded again with the saved seed then every snapshot is applied
+     * The player gets its saved score, health and location
+     * Throw IllegalArgumentException if the file is not a save file or does not match the level file
+     *
+     * @param file   save file
+     * @param player Player of the level
+     * @return restored Level
+     */
+    public static Level load(Path file, Player player) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            readHeader(in, file);
+            long seed = in.readLong();
+            LevelTemplate template = LevelTemplate.load(Path.of(in.readUTF()));
+            Level level = template.instantiate(player, seed);
+
+            byte[] record;
+            while ((record = readRecord(in)) != null) {
+                GameSnapshot.read(new DataInputStream(new ByteArrayInputStream(record)), template.getLayout()).applyTo(level);
+            }
+            return level;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading save file: " + e.getMessage());
+        }
+    }
+
+    private static void readHeader(DataInputStream in, Path file) throws IOException {
+        byte[] magic = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a save file: " + file);
+        }
+
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported save version: " + version);
+        }
+    }
+
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        byte[] record = in.readNBytes(Math.max(0, length));
+        return record.length == length ? record : null;
+    }
+
+    /**
+     * Appends a snapshot and forces it to disk
+     * A full snapshot is written alone in a new file which replaces the journal once complete
+     * Can be called from any thread, but by a single thread at a time
+     *
+     * @param snapshot snapshot to write
+     * @throws IOException if the snapshot can not be written
+     */
+    public void write(GameSnapshot snapshot) throws IOException {
+        this.buffer.reset();
+        DataOutputStream out = new DataOutputStream(this.buffer);
+        out.writeInt(0);
+        snapshot.write(out, this.base);
+
+        byte[] record = this.buffer.toByteArray();
+        ByteBuffer.wrap(record).putInt(0, record.length - Integer.BYTES);
+        if (snapshot.isFull()) {
+            Path compacted = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+            this.channel.close();
+            this.channel = open(compacted);
+            this.append(this.header);
+            this.append(record);
+            // the file is closed before it is moved, then the journal goes on at the end of the destination
+            this.channel.close();
+            Files.move(compacted, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.channel = FileChannel.open(this.file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } else {
+            this.append(record);
+        }
+        this.records++;
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.channel.force(false);
+    }
+
+    /**
+     * Gets the number of snapshots written
+     * @return written snapshots
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the size of the file
+     * @return size in bytes
+     * @throws IOException if the size can not be read
+     */
+    public long getSize() throws IOException {
+        return this.channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -13,4 +13,12 @@ public interface Entity {
 
     Location getLocation();
 
+    default int getX() {
+        return getLocation().getX();
+    }
+
+    default int getY() {
+        return getLocation().getY();
+    }
+
 }
@@ -1,14 +1,39 @@
 package io.squid.cytale.entities;
 
-import io.squid.cytale.enums.CellType;
+import io.squid.cytale.ai.FlowField;
+import io.squid.cytale.engine.InputRecorder;
 import io.squid.cytale.enums.Direction;
+import io.squid.cytale.event.EventBus;
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.grid.CoinIndex;
+import io.squid.cytale.grid.Connectivity;
+import io.squid.cytale.grid.CopyOnWriteLevelGrid;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
+import io.squid.cytale.grid.SpatialIndex;
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.metrics.Metrics;
+import io.squid.cytale.render.Renderer;
+import io.squid.cytale.render.TextRenderer;
+import io.squid.cytale.render.Viewport;
+import io.squid.cytale.tick.InterestArea;
+import io.squid.cytale.tick.MovementSystem;
+import io.squid.cytale.tick.SequentialTickScheduler;
+import io.squid.cytale.tick.TickScheduler;
+import io.squid.cytale.util.LongObjectMap;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a level in the game
@@ -16,129 +41,310 @@ import java.util.Set;
  * X = right to left
  * Y = top to bottom
  * 0 0 is top left corner
+ * Many players can share the level, see addPlayer, the player given to the constructor is the first one
  *
  * @author TopeEstLa
  */
 public class Level {
 
-    private final LevelCell[][] layout;
+    private final LevelGrid layout;
     private final int length;
     private final int width;
 
     private final List<Entity> entities;
-    private final Set<Location> entitiesLocation;
+    private final SpatialIndex entityIndex;
+    private List<Entity> awakeEntities;
+    private Connectivity connectivity;
+    private boolean[] awakeComponents;
+    private MonsterStore monsterStore;
+    private MovementSystem movementSystem;
 
     private final Player player;
     private Location defaultPlayerLocation;
 
+    private PlayerSlot[] slots = new PlayerSlot[4];
+    private int slotCount;
+    private int playerCount;
+    private final Map<Player, PlayerSlot> slotsByPlayer = new IdentityHashMap<>();
+    private final LongObjectMap<PlayerSlot> playerCells = new LongObjectMap<>();
+    private PlayerSlot interactingSlot;
+
+    private final Consumer<Entity> playerInteraction = this::interactWithPlayer;
+    private final IntConsumer storeInteraction = index -> this.interactWithPlayer(this.monsterStore.get(index));
+    private final EventBus events = new EventBus();
+    private long tick;
+    private boolean completed;
+    private Renderer consoleRenderer;
+    private TickScheduler tickScheduler = new SequentialTickScheduler();
+    private InterestArea interestArea;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    private FlowField flowField;
+    private InputRecorder inputRecorder;
+    private Direction recordedStep;
+
     /**
      * Parsing a level from a file
-     * literally reading the file line by line and char by char
-     * and storing it in a 2D char array
-     * Player position is marked by '1' in the file
+     * Player position is marked by '1' in the file, binary levels (.cytl) are supported too
+     * The file is parsed on every call, see LevelCache to reuse parsed levels
      *
      * @param file Path to the level file
      */
     public Level(Path file, Player player) {
-        List<String> lines;
-        try {
-            lines = Files.readAllLines(file);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Error reading file: " + e.getMessage());
-        }
-
-        this.length = lines.size();
-        this.width = lines.get(0).length();
+        this(LevelTemplate.load(file), player);
+    }
 
-        this.layout = new LevelCell[this.length][this.width];
+    /**
+     * Creating a level from a parsed template with a random seed
+     * The layout is shared with the template until the level modifies it
+     *
+     * @param template parsed level
+     */
+    public Level(LevelTemplate template, Player player) {
+        this(template, player, ThreadLocalRandom.current().nextLong());
+    }
 
-        this.entities = new ArrayList<>();
-        this.entitiesLocation = new HashSet<>();
-
-        for (int i = 0; i < this.length; i++) {
-            String line = lines.get(i);
-            for (int j = 0; j < this.width; j++) {
-                char charStr = line.charAt(j);
-                CellType cellType;
-                boolean hasCoin = false;
-                if (charStr == '1') {
-                    this.defaultPlayerLocation = new Location(j, i);
-                    cellType = CellType.FLOOR;
-                } else if (charStr == '.') {
-                    cellType = CellType.FLOOR;
-                    hasCoin = true;
-                } else if (charStr == 'R') {
-                    Location location = new Location(j, i);
-                    Monster monster = new Monster(this, 5, location);
-                    this.entities.add(monster);
-                    this.entitiesLocation.add(location.copy());
-                    cellType = CellType.FLOOR;
-                } else {
-                    cellType = CellType.fromSymbol(charStr);
-                }
-
-                this.layout[i][j] = new LevelCell(cellType, new Location(j, i), hasCoin);
-            }
-        }
+    /**
+     * Creating a level from a parsed template
+     * The layout is shared with the template until the level modifies it
+     *
+     * @param template parsed level
+     * @param seed     seed of the random generators of the level
+     */
+    public Level(LevelTemplate template, Player player, long seed) {
+        this(template, player, seed, false);
+    }
 
-        if (this.defaultPlayerLocation == null) {
-            throw new IllegalArgumentException("Player position not found in level file");
-        }
+    /**
+     * Creating a level from a parsed template
+     * The layout is shared with the template until the level modifies it
+     *
+     * @param template     parsed level
+     * @param seed         seed of the random generators of the level
+     * @param monsterStore true to keep the monsters in a MonsterStore, see enableMonsterStore
+     */
+    public Level(LevelTemplate template, Player player, long seed, boolean monsterStore) {
+        this(new CopyOnWriteLevelGrid(template.getLayout()), template.getSpawnX(), template.getSpawnY(), player, seed);
 
-        if (player == null) {
-            throw new IllegalArgumentException("Player cannot be null");
+        if (monsterStore) {
+            MonsterStore store = this.enableMonsterStore();
+            for (int i = 0; i < template.getMonsterCount(); i++) {
+                long spawn = template.getMonsterSpawn(i);
+                store.add(Location.unpackX(spawn), Location.unpackY(spawn), 5);
+            }
+        } else {
+            for (int i = 0; i < template.getMonsterCount(); i++) {
+                long spawn = template.getMonsterSpawn(i);
+                this.addEntity(new Monster(this, 5, new Location(Location.unpackX(spawn), Location.unpackY(spawn))));
+            }
         }
-
-        this.player = player;
-        this.player.setLocation(this.defaultPlayerLocation.copy());
+        this.setConnectivity(template.getConnectivity());
     }
 
     /**
      * Constructor for Level
+     * The cells are copied into a packed grid
      * Throw IllegalArgumentException if player position is out of bounds or on a wall
      *
-     * @param layout  2D char array representing the layout
+     * @param layout  2D cell array representing the layout
      * @param length  length of the layout
      * @param width   width of the layout
      * @param playerX player X position
      * @param playerY player Y position
      */
     public Level(LevelCell[][] layout, int length, int width, int playerX, int playerY, Player player) {
+        this(copyLayout(layout, length, width), playerX, playerY, player);
+    }
+
+    /**
+     * Constructor for Level with a random seed
+     * Throw IllegalArgumentException if player position is out of bounds or on a wall
+     *
+     * @param layout  grid storing the layout
+     * @param playerX player X position
+     * @param playerY player Y position
+     */
+    public Level(LevelGrid layout, int playerX, int playerY, Player player) {
+        this(layout, playerX, playerY, player, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructor for Level
+     * Throw IllegalArgumentException if player position is out of bounds or on a wall
+     *
+     * @param layout  grid storing the layout
+     * @param playerX player X position
+     * @param playerY player Y position
+     * @param seed    seed of the random generators of the level, see splitRandom
+     */
+    public Level(LevelGrid layout, int playerX, int playerY, Player player, long seed) {
         this.layout = layout;
-        this.length = length;
-        this.width = width;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.length = layout.getLength();
+        this.width = layout.getWidth();
 
         this.entities = new ArrayList<>();
-        this.entitiesLocation = new HashSet<>();
+        this.entityIndex = new SpatialIndex();
+        this.awakeEntities = this.entities;
+
+        this.checkSpawn(playerX, playerY);
+        this.defaultPlayerLocation = new Location(playerX, playerY);
 
-        if (playerX < 0 || playerY < 0) {
+        if (player == null) {
+            throw new IllegalArgumentException("Player cannot be null");
+        }
+
+        this.player = player;
+        this.addPlayer(player, playerX, playerY);
+        this.layout.focus(playerX, playerY);
+    }
+
+    private void checkSpawn(int x, int y) {
+        if (x < 0 || y < 0) {
             throw new IllegalArgumentException("Player position must be non-negative");
         }
 
-        if (playerY >= this.length || playerX >= this.width) {
+        if (y >= this.length || x >= this.width) {
             throw new IllegalArgumentException("Player position is out of bounds");
         }
 
-        this.defaultPlayerLocation = new Location(playerX, playerY);
-
-        if (!layout[playerY][playerX].getType().isWalkable()) {
+        if (!this.layout.getType(x, y).isWalkable()) {
             throw new IllegalArgumentException("Player position must be walkable");
         }
+    }
 
+    /**
+     * Adds a player to the level at its spawn
+     * The layout stays focused on the first player and the chasing monsters keep following it
+     * Players must then be moved through the level, see stepPlayer and queueMove
+     * Throw IllegalArgumentException if the spawn is out of bounds or not walkable, or the player is already in the level
+     *
+     * @param player Player joining the level
+     * @param spawnX spawn X position
+     * @param spawnY spawn Y position
+     * @return slot of the player
+     */
+    public PlayerSlot addPlayer(Player player, int spawnX, int spawnY) {
         if (player == null) {
             throw new IllegalArgumentException("Player cannot be null");
         }
 
-        this.player = player;
-        this.player.setLocation(this.defaultPlayerLocation.copy());
+        this.checkSpawn(spawnX, spawnY);
+        if (this.slotsByPlayer.containsKey(player)) {
+            throw new IllegalArgumentException("Player is already in the level");
+        }
+
+        if (this.slotCount == this.slots.length) {
+            this.slots = Arrays.copyOf(this.slots, this.slotCount * 2);
+        }
+
+        PlayerSlot slot = new PlayerSlot(this.slotCount, player, spawnX, spawnY);
+        this.slots[this.slotCount++] = slot;
+        this.playerCount++;
+        this.slotsByPlayer.put(player, slot);
+        player.setLocation(spawnX, spawnY);
+        this.indexPlayer(slot);
+        this.wake(spawnX, spawnY);
+        return slot;
+    }
+
+    /**
+     * Removes a player from the level, its slot id is not reused
+     * Throw IllegalArgumentException for the first player of the level
+     *
+     * @param slot slot of the leaving player
+     */
+    public void removePlayer(PlayerSlot slot) {
+        if (slot.getId() == 0) {
+            throw new IllegalArgumentException("The first player cannot be removed");
+        }
+
+        if (slot.removed) {
+            return;
+        }
+
+        this.unindexPlayer(slot);
+        slot.removed = true;
+        slot.queuedMove = null;
+        this.slotsByPlayer.remove(slot.getPlayer());
+        this.playerCount--;
+    }
+
+    /**
+     * Queues the move of a player for the next tick, replacing the move already queued
+     * Queued moves are applied at the start of tickLevel in slot id order, whatever the order they were queued in
+     * Moves of dead players are dropped
+     *
+     * @param slot      slot of the player
+     * @param direction Direction to move the player, null to wait
+     */
+    public void queueMove(PlayerSlot slot, Direction direction) {
+        if (slot.removed) {
+            throw new IllegalArgumentException("Player left the level");
+        }
+        slot.queuedMove = direction;
+    }
+
+    private void applyQueuedMoves() {
+        for (int i = 0; i < this.slotCount; i++) {
+            PlayerSlot slot = this.slots[i];
+            Direction move = slot.queuedMove;
+            if (move == null) {
+                continue;
+            }
+
+            slot.queuedMove = null;
+            if (slot.getPlayer().isDead()) {
+                continue;
+            }
+
+            if (i == 0) {
+                this.stepPlayer(move);
+            } else {
+                this.stepPlayer(slot, move);
+            }
+        }
     }
 
     /**
      * Moves the player in the specified direction
+     * then ticks the level (turn based mode)
      *
      * @param direction Direction to move the player
      */
     public void moovePlayer(Direction direction) {
+        this.stepPlayer(direction);
+        this.tickLevel();
+    }
+
+    /**
+     * Moves the first player in the specified direction without ticking the level
+     * Picks the coin, triggers the trap and interacts with the entities of the target cell
+     *
+     * @param direction Direction to move the player
+     */
+    public void stepPlayer(Direction direction) {
+        if (this.inputRecorder != null) {
+            if (this.recordedStep != null) {
+                throw new IllegalStateException("Only one step per tick can be recorded");
+            }
+            this.recordedStep = direction;
+        }
+        this.stepPlayer(this.slots[0], direction);
+    }
+
+    /**
+     * Moves a player in the specified direction without ticking the level
+     * Picks the coin, triggers the trap and interacts with the entities of the target cell
+     *
+     * @param slot      slot of the player
+     * @param direction Direction to move the player
+     */
+    public void stepPlayer(PlayerSlot slot, Direction direction) {
+        long start = Metrics.start();
         int dx = 0;
         int dy = 0;
 
@@ -159,102 +365,522 @@ public class Level {
                 throw new IllegalArgumentException("Invalid direction");
         }
 
-        // nextX = (((x + dx) mod(width)) + width) mod(width)
-        int nextX = (this.player.getLocation().getX() + dx % this.width + this.width) % this.width; //dark calculus who some how work
-        int nextY = (this.player.getLocation().getY() + dy % this.length + this.length) % this.length;
+        Player moving = slot.getPlayer();
+        int nextX = this.stepX(moving.getX(), dx);
+        int nextY = this.stepY(moving.getY(), dy);
 
-        LevelCell targetCell = this.layout[nextY][nextX];
-        Location loca = new Location(nextX, nextY);
-        if (targetCell.getType().isWalkable()) {
-            player.setLocation(loca.copy());
+        int flags = this.layout.getFlags(nextX, nextY);
+        if ((flags & LevelGrid.PLAYER_WALKABLE) != 0) {
+            this.relocatePlayer(slot, nextX, nextY);
+            this.events.publish(EventType.PLAYER_MOVED, this.tick, nextX, nextY, null, slot.getId(), 0);
 
-            if (targetCell.hasCoin()) {
-                player.addScore(10);
-                targetCell.setCoin(false);
+            if ((flags & LevelGrid.COIN) != 0) {
+                moving.addScore(10);
+                this.layout.setCoin(nextX, nextY, false);
+                this.events.publish(EventType.COIN_COLLECTED, this.tick, nextX, nextY, null, slot.getId(), 0);
             }
 
-            if (targetCell.getType().equals(CellType.TRAP)) {
-                this.playerDamage();
+            if ((flags & LevelGrid.TRAP) != 0) {
+                this.events.publish(EventType.TRAP_TRIGGERED, this.tick, nextX, nextY, null, slot.getId(), 0);
+                this.damagePlayer(slot);
             }
 
-            if (this.entitiesLocation.contains(loca)) {
-                List<Entity> targetEntities = this.getEntitiesAt(loca);
-                for (Entity entity : targetEntities) {
-                    entity.interact(this.player);
-                }
+            this.interactingSlot = slot;
+            if (this.monsterStore != null) {
+                this.monsterStore.forEachAt(nextX, nextY, this.storeInteraction);
             }
+            this.entityIndex.forEachAt(nextX, nextY, this.playerInteraction);
+            this.interactingSlot = null;
         }
+        Metrics.stop(Metrics.Timer.MOVE, start);
+    }
 
-        this.tickLevel();
+    private void interactWithPlayer(Entity entity) {
+        entity.interact(this.interactingSlot.getPlayer());
     }
 
     public void playerDamage() {
-        player.removeHealth(1);
-        player.setLocation(this.defaultPlayerLocation.copy());
+        this.damagePlayer(this.slots[0]);
+    }
+
+    /**
+     * Removes one health from a player and sends it back to its spawn, publishing PLAYER_DAMAGED
+     *
+     * @param slot slot of the damaged player
+     */
+    public void damagePlayer(PlayerSlot slot) {
+        Player damaged = slot.getPlayer();
+        damaged.removeHealth(1);
+        this.events.publish(EventType.PLAYER_DAMAGED, this.tick, damaged.getX(), damaged.getY(), null, slot.getId(), damaged.getHealth());
+        this.relocatePlayer(slot, slot.getSpawn().getX(), slot.getSpawn().getY());
     }
 
     /**
-     * Displays the layout with the player position marked as '1'
+     * Damages the first player on behalf of an entity, publishing PLAYER_DAMAGED then PLAYER_ATTACKED
+     *
+     * @param attacker Entity attacking the player
      */
-    public void showLayout() {
-        for (int i = 0; i < this.length; i++) {
-            for (int j = 0; j < this.width; j++) {
-                if (i == this.player.getLocation().getY() && j == this.player.getLocation().getX()) {
-                    System.out.print("1 ");
-                } else {
-                    Location loc = new Location(j, i);
-                    if (this.entitiesLocation.contains(loc)) {
-                        List<Entity> locationEntity = this.getEntitiesAt(loc);
-                        if (!locationEntity.isEmpty()) {
-                            System.out.print(locationEntity.get(0).getSymbol() + " ");
-                            continue;
-                        }
-                    }
-                    System.out.print(this.layout[i][j].getSymbol() + " ");
-                }
+    public void attackPlayer(Entity attacker) {
+        this.attackPlayer(attacker, this.slots[0]);
+    }
+
+    /**
+     * Damages a player on behalf of an entity, publishing PLAYER_DAMAGED then PLAYER_ATTACKED
+     * Dead players keep their slot in server rooms, they are not attacked anymore
+     * Throw IllegalArgumentException if the player is not in the level
+     *
+     * @param attacker Entity attacking the player
+     * @param slot     slot of the attacked player
+     */
+    public void attackPlayer(Entity attacker, PlayerSlot slot) {
+        if (slot == null || slot.removed) {
+            throw new IllegalArgumentException("Player is not in the level");
+        }
+
+        if (slot.getPlayer().isDead()) {
+            return;
+        }
+        this.damagePlayer(slot);
+        this.events.publish(EventType.PLAYER_ATTACKED, this.tick, attacker.getX(), attacker.getY(), attacker, slot.getId(), slot.getPlayer().getHealth());
+    }
+
+    /**
+     * Moves a player without walking, keeping the player index up to date
+     * Used by respawns and when restoring a snapshot
+     *
+     * @param slot slot of the player
+     * @param x    X coordinate
+     * @param y    Y coordinate
+     */
+    public void setPlayerLocation(PlayerSlot slot, int x, int y) {
+        if (slot.removed) {
+            throw new IllegalArgumentException("Player left the level");
+        }
+
+        this.relocatePlayer(slot, x, y);
+        this.wake(x, y);
+    }
+
+    /**
+     * Moves a player within its component, the components awake do not change
+     */
+    private void relocatePlayer(PlayerSlot slot, int x, int y) {
+        Player moved = slot.getPlayer();
+        if (moved.getX() == x && moved.getY() == y) {
+            return;
+        }
+
+        this.unindexPlayer(slot);
+        moved.setLocation(x, y);
+        this.indexPlayer(slot);
+    }
+
+    private void indexPlayer(PlayerSlot slot) {
+        long key = slot.getPlayer().getLocation().toPacked();
+        slot.nextAtCell = this.playerCells.get(key);
+        this.playerCells.put(key, slot);
+    }
+
+    private void unindexPlayer(PlayerSlot slot) {
+        long key = slot.getPlayer().getLocation().toPacked();
+        PlayerSlot head = this.playerCells.get(key);
+        if (head == slot) {
+            if (slot.nextAtCell == null) {
+                this.playerCells.remove(key);
+            } else {
+                this.playerCells.put(key, slot.nextAtCell);
+            }
+        } else {
+            PlayerSlot previous = head;
+            while (previous != null && previous.nextAtCell != slot) {
+                previous = previous.nextAtCell;
+            }
+            if (previous != null) {
+                previous.nextAtCell = slot.nextAtCell;
             }
-            System.out.println();
         }
+        slot.nextAtCell = null;
+    }
+
+    /**
+     * Wraps an X coordinate around the level (toroidal layout)
+     * nextX = (((x) mod(width)) + width) mod(width)
+     *
+     * @param x X coordinate, may be out of bounds
+     * @return X coordinate in [0, width)
+     */
+    public int wrapX(int x) {
+        return (x % this.width + this.width) % this.width;
+    }
+
+    /**
+     * Wraps an Y coordinate around the level (toroidal layout)
+     *
+     * @param y Y coordinate, may be out of bounds
+     * @return Y coordinate in [0, length)
+     */
+    public int wrapY(int y) {
+        return (y % this.length + this.length) % this.length;
+    }
+
+    /**
+     * Moves an X coordinate by at most the width of the level, going around the level
+     * Cheaper than wrapX, a comparison instead of two divisions
+     *
+     * @param x  X coordinate in [0, width)
+     * @param dx offset in [-width, width]
+     * @return X coordinate in [0, width)
+     */
+    public int stepX(int x, int dx) {
+        int next = x + dx;
+        if (next < 0) {
+            return next + this.width;
+        }
+        return next >= this.width ? next - this.width : next;
+    }
+
+    /**
+     * Moves an Y coordinate by at most the length of the level, going around the level
+     *
+     * @param y  Y coordinate in [0, length)
+     * @param dy offset in [-length, length]
+     * @return Y coordinate in [0, length)
+     */
+    public int stepY(int y, int dy) {
+        int next = y + dy;
+        if (next < 0) {
+            return next + this.length;
+        }
+        return next >= this.length ? next - this.length : next;
     }
 
+    /**
+     * Displays the whole layout on the standard output with the player position marked as '1'
+     * Only the cells within the radius of the interest area are displayed when the level has one
+     * The frame is composed in memory and printed at once, see TextRenderer
+     */
+    public void showLayout() {
+        long start = Metrics.start();
+        if (this.consoleRenderer == null) {
+            Viewport viewport = this.interestArea == null ? Viewport.FULL : new Viewport(this.interestArea.getRadius(), this.interestArea.getRadius());
+            this.consoleRenderer = new TextRenderer(System.out, viewport);
+        }
+        this.consoleRenderer.render(this);
+        Metrics.stop(Metrics.Timer.RENDER, start);
+    }
+
+    /**
+     * Ticks every entity of the level with the tick scheduler
+     * which keeps the entity index up to date with their moves
+     * The layout is focused on the player first, see LevelGrid.focus, then the flow field follows the player
+     * The moves queued with queueMove are applied first, in slot id order
+     * then the interest area, if any, is updated around the players, see InterestArea
+     * The monsters of the monster store, if any, tick before the other entities, see enableMonsterStore
+     * The events of the tick, including those of the player step before it, are dispatched at the end
+     * Timed as Metrics.Timer.TICK when metrics are enabled
+     */
     public void tickLevel() {
-        this.entitiesLocation.clear();
+        long start = Metrics.start();
+        long allocated = Metrics.allocatedBytes();
+        this.applyQueuedMoves();
+        if (this.inputRecorder != null) {
+            this.inputRecorder.record(this.recordedStep);
+            this.recordedStep = null;
+        }
+
+        if (this.interestArea != null) {
+            this.interestArea.update(this);
+        }
+        this.layout.focus(this.player.getX(), this.player.getY());
+        if (this.flowField != null) {
+            this.flowField.update(this.player.getX(), this.player.getY());
+        }
+        if (this.movementSystem != null) {
+            this.movementSystem.tick(this);
+        }
+        this.tickScheduler.tick(this);
+
+        if (!this.completed && this.isCompleted()) {
+            this.completed = true;
+            this.events.publish(EventType.LEVEL_COMPLETED, this.tick, this.player.getX(), this.player.getY(), null, 0);
+        }
+
+        for (int i = 0; i < this.slotCount; i++) {
+            PlayerSlot slot = this.slots[i];
+            if (!slot.died && !slot.removed && slot.getPlayer().isDead()) {
+                slot.died = true;
+                this.events.publish(EventType.PLAYER_DIED, this.tick, slot.getPlayer().getX(), slot.getPlayer().getY(), null, slot.getId(), 0);
+            }
+        }
+
+        this.events.dispatch(this.tick);
+        Metrics.add(Metrics.Counter.DORMANT_ENTITIES, this.entities.size() - this.awakeEntities.size());
+        Metrics.stopTick(start, allocated, this.tick, this.getEntityCount());
+        this.tick++;
+    }
+
+    /**
+     * Adds an entity to the level at its current location
+     *
+     * @param entity Entity to add
+     */
+    public void addEntity(Entity entity) {
+        this.entities.add(entity);
+        this.entityIndex.add(entity);
+        if (this.awakeEntities != this.entities && this.isAwake(entity.getX(), entity.getY())) {
+            this.awakeEntities.add(entity);
+        }
+    }
+
+    /**
+     * Keeps the monsters added to the store in parallel arrays instead of one Monster object each
+     * The store is ticked by a MovementSystem before the other entities, its monsters come first in getEntities
+     * Monsters of the store are seen through StoredMonster views, they are not in the entity index
+     *
+     * @return MonsterStore of the level, created on the first call
+     */
+    public MonsterStore enableMonsterStore() {
+        if (this.monsterStore == null) {
+            this.monsterStore = new MonsterStore(this);
+            this.movementSystem = new MovementSystem();
+        }
+        return this.monsterStore;
+    }
+
+    /**
+     * Gets the monster store of the level
+     *
+     * @return MonsterStore, null if enableMonsterStore was never called
+     */
+    public MonsterStore getMonsterStore() {
+        return monsterStore;
+    }
+
+    /**
+     * Gets the number of entities, the monsters of the store included
+     *
+     * @return size of getEntities
+     */
+    public int getEntityCount() {
+        return this.monsterStore == null ? this.entities.size() : this.monsterStore.size() + this.entities.size();
+    }
+
+    /**
+     * Sets the connected components of the layout, the entities out of the components of every player become dormant
+     * A component wakes up once a player is added to it, or moved to it with setPlayerLocation, and never sleeps again
+     * Dormant entities are not ticked at all, they can not reach any player and no player can reach them
+     *
+     * @param connectivity components of the layout, must match it
+     */
+    public void setConnectivity(Connectivity connectivity) {
+        this.connectivity = connectivity;
+        this.awakeComponents = new boolean[connectivity.getComponentCount()];
+        for (int i = 0; i < this.slotCount; i++) {
+            Player joined = this.slots[i].getPlayer();
+            int component = connectivity.getComponent(joined.getX(), joined.getY());
+            if (component >= 0) {
+                this.awakeComponents[component] = true;
+            }
+        }
+        if (this.monsterStore != null) {
+            this.monsterStore.assignComponents(connectivity);
+        }
+        this.collectAwakeEntities();
+    }
+
+    private void wake(int x, int y) {
+        if (this.connectivity == null) {
+            return;
+        }
+
+        int component = this.connectivity.getComponent(x, y);
+        if (component >= 0 && !this.awakeComponents[component]) {
+            this.awakeComponents[component] = true;
+            this.collectAwakeEntities();
+        }
+    }
+
+    private void collectAwakeEntities() {
+        List<Entity> awake = new ArrayList<>();
         for (Entity entity : this.entities) {
-            entity.tick();
-            this.entitiesLocation.add(entity.getLocation().copy());
+            if (this.isAwake(entity.getX(), entity.getY())) {
+                awake.add(entity);
+            }
         }
+        this.awakeEntities = awake;
+    }
+
+    private boolean isAwake(int x, int y) {
+        if (this.connectivity == null) {
+            return true;
+        }
+
+        // entities out of the walkable cells, which can not move, stay awake to keep interacting
+        int component = this.connectivity.getComponent(x, y);
+        return component < 0 || this.awakeComponents[component];
+    }
+
+    boolean isComponentAwake(int component) {
+        return this.awakeComponents[component];
+    }
+
+    boolean[] getAwakeComponents() {
+        return awakeComponents;
     }
 
     /**
      * Checks if the level is completed (no coins left)
+     * Constant time, the coin count is kept up to date by the layout
      *
      * @return true if completed, false otherwise
      */
     public boolean isCompleted() {
-        for (int i = 0; i < this.length; i++) {
-            for (int j = 0; j < this.width; j++) {
-                if (this.layout[i][j].hasCoin()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        long start = Metrics.start();
+        boolean completed = this.layout.getCoinIndex().getRemaining() == 0;
+        Metrics.stop(Metrics.Timer.COMPLETION_CHECK, start);
+        return completed;
+    }
+
+    /**
+     * Gets the number of coins left in the level
+     *
+     * @return remaining coins
+     */
+    public int getRemainingCoins() {
+        return this.layout.getCoinIndex().getRemaining();
+    }
+
+    /**
+     * Gets the number of coins collected in the level
+     *
+     * @return collected coins
+     */
+    public int getCollectedCoins() {
+        return this.layout.getCoinIndex().getCollected();
+    }
+
+    /**
+     * Gets the coin bookkeeping of the level
+     * with per region counts
+     *
+     * @return CoinIndex of the layout
+     */
+    public CoinIndex getCoinIndex() {
+        return this.layout.getCoinIndex();
     }
 
+    /**
+     * Gets every entity standing at the given location
+     *
+     * @param location Location to look at
+     * @return entities at the location, empty if there is none
+     */
     public List<Entity> getEntitiesAt(Location location) {
         List<Entity> foundEntities = new ArrayList<>();
-        for (Entity entity : this.entities) {
-            if (entity.getLocation().equals(location)) {
-                foundEntities.add(entity);
-            }
+        if (this.monsterStore != null) {
+            this.monsterStore.forEachAt(location.getX(), location.getY(), index -> foundEntities.add(this.monsterStore.get(index)));
         }
+        this.entityIndex.collectAt(location.getX(), location.getY(), foundEntities);
         return foundEntities;
     }
 
-    public LevelCell[][] getLayout() {
+    /**
+     * Gets the first entity standing at x y
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return the entity, null if there is none
+     */
+    public Entity getEntityAt(int x, int y) {
+        if (this.monsterStore != null) {
+            int index = this.monsterStore.firstAt(x, y);
+            if (index >= 0) {
+                return this.monsterStore.get(index);
+            }
+        }
+        return this.entityIndex.getFirstAt(x, y);
+    }
+
+    /**
+     * Checks if an entity stands at x y
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if an entity is at x y
+     */
+    public boolean hasEntityAt(int x, int y) {
+        return (this.monsterStore != null && this.monsterStore.firstAt(x, y) >= 0) || this.entityIndex.hasEntityAt(x, y);
+    }
+
+    /**
+     * Gets the entities of the level
+     * The monsters of the store come first, as new StoredMonster views on every get
+     *
+     * @return unmodifiable list of entities
+     */
+    public List<Entity> getEntities() {
+        if (this.monsterStore == null) {
+            return Collections.unmodifiableList(this.entities);
+        }
+
+        return new AbstractList<>() {
+            @Override
+            public Entity get(int index) {
+                int stored = monsterStore.size();
+                return index < stored ? monsterStore.get(index) : entities.get(index - stored);
+            }
+
+            @Override
+            public int size() {
+                return getEntityCount();
+            }
+        };
+    }
+
+    /**
+     * Gets the entities which are not dormant, in the order of getEntities, see setConnectivity
+     * The monsters of the store are not included, they are ticked by the movement system
+     *
+     * @return unmodifiable list of the entities to tick
+     */
+    public List<Entity> getAwakeEntities() {
+        return Collections.unmodifiableList(this.awakeEntities);
+    }
+
+    /**
+     * Gets the connected components of the layout
+     *
+     * @return Connectivity of the level, null when the level was not created from a template and every entity is awake
+     */
+    public Connectivity getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * Gets the spatial index of the entities
+     *
+     * @return SpatialIndex of the level
+     */
+    public SpatialIndex getEntityIndex() {
+        return entityIndex;
+    }
+
+    public LevelGrid getLayout() {
         return layout;
     }
 
+    /**
+     * Gets a view over the cell at x y
+     * Prefer reading the layout directly in hot paths, this allocates a LevelCell
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return LevelCell view backed by the layout
+     */
+    public LevelCell getCell(int x, int y) {
+        return new LevelCell(this.layout, x, y);
+    }
+
     public int getLength() {
         return length;
     }
@@ -270,4 +896,188 @@ public class Level {
     public Location getDefaultPlayerLocation() {
         return defaultPlayerLocation;
     }
+
+    /**
+     * Gets the slot of a player of the level
+     *
+     * @param player Player to look for
+     * @return slot of the player, null if the player is not in the level
+     */
+    public PlayerSlot getPlayerSlot(Player player) {
+        return this.slotsByPlayer.get(player);
+    }
+
+    /**
+     * Gets a slot by id, removed slots included
+     *
+     * @param id slot id
+     * @return PlayerSlot
+     */
+    public PlayerSlot getPlayerSlot(int id) {
+        if (id < 0 || id >= this.slotCount) {
+            throw new IllegalArgumentException("Unknown player slot: " + id);
+        }
+        return this.slots[id];
+    }
+
+    /**
+     * Gets a player standing at x y
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return slot of the player, null if there is none
+     */
+    public PlayerSlot getPlayerAt(int x, int y) {
+        if (this.playerCount == 1) {
+            return this.player.getLocation().is(x, y) ? this.slots[0] : null;
+        }
+        return this.playerCells.get(Location.pack(x, y));
+    }
+
+    /**
+     * Gets the players of the level in slot id order
+     *
+     * @return slots of the players still in the level
+     */
+    public List<PlayerSlot> getPlayers() {
+        List<PlayerSlot> players = new ArrayList<>(this.playerCount);
+        for (int i = 0; i < this.slotCount; i++) {
+            if (!this.slots[i].removed) {
+                players.add(this.slots[i]);
+            }
+        }
+        return players;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gets the number of slots created, removed slots included
+     *
+     * @return one more than the highest slot id
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the distance map toward the player used by the chasing monsters
+     * Created on the first call with a radius of FlowField.DEFAULT_RADIUS, then updated before every tick
+     * Call FlowField.invalidate after changing walls or traps of the layout
+     *
+     * @return FlowField of the level
+     */
+    public FlowField getFlowField() {
+        if (this.flowField == null) {
+            this.flowField = new FlowField(this.layout, FlowField.DEFAULT_RADIUS);
+            this.flowField.update(this.player.getX(), this.player.getY());
+        }
+        return this.flowField;
+    }
+
+    /**
+     * Creates the random generator of a new entity
+     * Every entity gets its own stream split from the level generator, in creation order,
+     * so a level replays the same way from the same seed whatever thread ticks the entities
+     *
+     * @return new generator, owned by the entity
+     */
+    public SplittableRandom splitRandom() {
+        return this.random.split();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public InputRecorder getInputRecorder() {
+        return inputRecorder;
+    }
+
+    /**
+     * Records the moves of the player, one entry per tick, see InputRecorder
+     * At most one step can be taken between two ticks while recording
+     *
+     * @param inputRecorder recorder receiving the moves, null to stop recording
+     */
+    public void setInputRecorder(InputRecorder inputRecorder) {
+        this.inputRecorder = inputRecorder;
+        this.recordedStep = null;
+    }
+
+    /**
+     * Gets the events of the level
+     * Subscribe to receive coins, damages, moves and completion once per tick, nothing is printed by the level itself
+     *
+     * @return EventBus of the level
+     */
+    public EventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the number of ticks played
+     *
+     * @return ticks played since the level was created
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets the number of ticks played, used when a level is restored from a snapshot
+     *
+     * @param tick ticks already played
+     */
+    public void setTick(long tick) {
+        if (tick < 0) {
+            throw new IllegalArgumentException("Tick must be non-negative");
+        }
+        this.tick = tick;
+    }
+
+    public TickScheduler getTickScheduler() {
+        return tickScheduler;
+    }
+
+    /**
+     * Sets the scheduler used by tickLevel
+     * SequentialTickScheduler by default, ParallelTickScheduler for levels with many entities
+     *
+     * @param tickScheduler new tick scheduler
+     */
+    public void setTickScheduler(TickScheduler tickScheduler) {
+        if (tickScheduler == null) {
+            throw new IllegalArgumentException("Tick scheduler cannot be null");
+        }
+        this.tickScheduler = tickScheduler;
+    }
+
+    public InterestArea getInterestArea() {
+        return interestArea;
+    }
+
+    /**
+     * Sets the area of interest of the players, entities far from every player tick less often
+     *
+     * @param interestArea new interest area, null to tick every entity every tick
+     */
+    public void setInterestArea(InterestArea interestArea) {
+        this.interestArea = interestArea;
+        this.consoleRenderer = null;
+    }
+
+    private static LevelGrid copyLayout(LevelCell[][] layout, int length, int width) {
+        PackedLevelGrid grid = new PackedLevelGrid(width, length);
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                LevelCell cell = layout[i][j];
+                grid.setType(j, i, cell.getType());
+                grid.setCoin(j, i, cell.hasCoin());
+            }
+        }
+        return grid;
+    }
 }
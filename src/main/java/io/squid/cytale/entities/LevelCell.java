@@ -1,20 +1,23 @@
 package io.squid.cytale.entities;
 
 import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
 
 /**
  * Represents a cell in the level
  * with a type and location
  * coin indicates if there is a coin in the cell
+ * A cell is a flyweight view over a LevelGrid, reads and writes go to the grid
  * @author TopeEstLa
  */
 public class LevelCell {
 
-    private final CellType type;
+    private final LevelGrid grid;
+    private final int gridX;
+    private final int gridY;
     private final Location location;
 
-    private boolean coin;
-
     /**
      * Constructor for LevelCell
      * @param type Cell type
@@ -26,14 +29,32 @@ public class LevelCell {
 
     /**
      * Constructor for LevelCell
+     * The cell is backed by its own single tile grid
      * @param type Cell type
      * @param location Cell location
      * @param coin Indicates if there is a coin in the cell
      */
     public LevelCell(CellType type, Location location, boolean coin) {
-        this.type = type;
+        this.grid = new PackedLevelGrid(1, 1);
+        this.gridX = 0;
+        this.gridY = 0;
         this.location = location;
-        this.coin = coin;
+        this.grid.setType(0, 0, type);
+        this.grid.setCoin(0, 0, coin);
+    }
+
+    /**
+     * Constructor for LevelCell
+     * View over the cell at x y of the grid
+     * @param grid Grid holding the cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     */
+    public LevelCell(LevelGrid grid, int x, int y) {
+        this.grid = grid;
+        this.gridX = x;
+        this.gridY = y;
+        this.location = new Location(x, y);
     }
 
     /**
@@ -41,7 +62,7 @@ public class LevelCell {
      * @return Character symbol
      */
     public char getSymbol() {
-        return coin ? 'C' : type.getSymbol();
+        return grid.getSymbol(gridX, gridY);
     }
 
     /**
@@ -49,7 +70,7 @@ public class LevelCell {
      * @return CellType
      */
     public CellType getType() {
-        return type;
+        return grid.getType(gridX, gridY);
     }
 
     /**
@@ -65,7 +86,7 @@ public class LevelCell {
      * @return True if there is a coin, false otherwise
      */
     public boolean hasCoin() {
-        return coin;
+        return grid.hasCoin(gridX, gridY);
     }
 
     /**
@@ -73,6 +94,6 @@ public class LevelCell {
      * @param coin New coin status
      */
     public void setCoin(boolean coin) {
-        this.coin = coin;
+        grid.setCoin(gridX, gridY, coin);
     }
 }
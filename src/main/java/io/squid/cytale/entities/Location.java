@@ -1,12 +1,12 @@
 package io.squid.cytale.entities;
 
-import java.util.Objects;
-
 /**
  * Represents a location in 2D space
  * X = right to left
  * Y = top to bottom
  * 0 0 is top left corner
+ * Locations are mutable so hot paths can reuse them as cursors,
+ * coordinates can also be packed in a single long with pack
  * @author TopeEstLa
  */
 public class Location {
@@ -24,6 +24,54 @@ public class Location {
         this.y = y;
     }
 
+    /**
+     * Packs coordinates in a single long
+     * X in the high 32 bits, Y in the low 32 bits
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return packed coordinates
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the X coordinate of packed coordinates
+     * @param packed coordinates packed with pack
+     * @return X coordinate
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the Y coordinate of packed coordinates
+     * @param packed coordinates packed with pack
+     * @return Y coordinate
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Moves the location to x y
+     * @param x new X coordinate
+     * @param y new Y coordinate
+     */
+    public void set(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Moves the location to the packed coordinates
+     * @param packed coordinates packed with pack
+     */
+    public void set(long packed) {
+        this.x = unpackX(packed);
+        this.y = unpackY(packed);
+    }
+
     /**
      * Translates the location by dx and dy
      * @param dx
@@ -46,6 +94,24 @@ public class Location {
      */
     public int getY() { return y; }
 
+    /**
+     * Gets the coordinates packed in a single long
+     * @return packed coordinates
+     */
+    public long toPacked() {
+        return pack(x, y);
+    }
+
+    /**
+     * Checks if the location is at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the coordinates match
+     */
+    public boolean is(int x, int y) {
+        return this.x == x && this.y == y;
+    }
+
     /**
      * Creates a copy of the location
      * @return New Location object with same coordinates
@@ -62,7 +128,7 @@ public class Location {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
     @Override
@@ -1,13 +1,17 @@
 package io.squid.cytale.entities;
 
+import io.squid.cytale.ai.FlowField;
+import io.squid.cytale.enums.Behaviour;
 import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.LevelGrid;
 
 import java.util.Objects;
+import java.util.random.RandomGenerator;
 
 /**
  * @author TopeEstLa
  */
-public class Monster implements Entity {
+public class Monster implements MovingEntity {
 
     private static int monsterCount = 0;
 
@@ -15,27 +19,61 @@ public class Monster implements Entity {
     private final String name;
     private int health;
 
-    private Location location;
+    private final Location location;
+    private final RandomGenerator random;
+    private Behaviour behaviour = Behaviour.RANDOM_WALK;
 
     public Monster(Level level, int health, Location location) {
         this(level, "MONSTER" + monsterCount, health, location);
     }
 
     public Monster(Level level, String name, int health, Location location) {
+        this(level, name, health, location, level.splitRandom());
+    }
+
+    /**
+     * Constructor for Monster
+     * @param random generator of the moves, owned by the monster
+     */
+    public Monster(Level level, String name, int health, Location location, RandomGenerator random) {
         this.level = level;
         this.name = name;
         this.health = health;
         this.location = location;
+        this.random = random;
         monsterCount++;
     }
 
 
     @Override
     public void tick() {
+        this.applyMove(this.planMove());
+    }
+
+    /**
+     * One step toward the player when chasing and the player is in reach of the flow field,
+     * random walk otherwise
+     */
+    @Override
+    public long planMove() {
+        if (this.behaviour == Behaviour.CHASE) {
+            long step = this.level.getFlowField().nextStep(this.location.getX(), this.location.getY());
+            if (step != FlowField.NO_STEP) {
+                return step;
+            }
+        }
+        return this.planRandomWalk();
+    }
+
+    /**
+     * Random walk, one step in one of the four directions
+     * Stays in place if the target cell is not walkable for a monster
+     */
+    private long planRandomWalk() {
         int dx = 0;
         int dy = 0;
 
-        int choice = (int) (Math.random() * 4);
+        int choice = this.random.nextInt(4);
         switch (choice) {
             case 0 -> dx = -1;
             case 1 -> dx = 1;
@@ -43,23 +81,33 @@ public class Monster implements Entity {
             case 3 -> dy = 1;
         }
 
-        int nextX = (this.location.getX() + dx % this.level.getWidth() + this.level.getWidth()) % this.level.getWidth();
-        int nextY = (this.location.getY() + dy % this.level.getLength() + this.level.getLength()) % this.level.getLength();
+        int nextX = this.level.stepX(this.location.getX(), dx);
+        int nextY = this.level.stepY(this.location.getY(), dy);
 
-        LevelCell cell = this.level.getLayout()[nextY][nextX];
-        if (isWalkable(cell.getType())) {
-            this.location = new Location(nextX, nextY);
+        if ((this.level.getLayout().getFlags(nextX, nextY) & LevelGrid.MONSTER_WALKABLE) != 0) {
+            return Location.pack(nextX, nextY);
+        }
+        return this.location.toPacked();
+    }
+
+    @Override
+    public void applyMove(long target) {
+        this.location.set(target);
+        if (this.behaviour == Behaviour.CHASE) {
+            PlayerSlot reached = this.level.getPlayerAt(this.location.getX(), this.location.getY());
+            if (reached != null) {
+                this.level.attackPlayer(this, reached);
+            }
         }
     }
 
     @Override
     public void interact(Player player) {
-        this.level.playerDamage();
-        System.out.printf("%s attacked Player! Player health is now %d%n", this.name, player.getHealth());
+        this.level.attackPlayer(this, this.level.getPlayerSlot(player));
     }
 
     public boolean isWalkable(CellType cellType) {
-        return cellType.isWalkable() && !(cellType.equals(CellType.TRAP));
+        return (LevelGrid.flagsOf(cellType, false) & LevelGrid.MONSTER_WALKABLE) != 0;
     }
 
     public void receiveDamage(int damage) {
@@ -70,6 +118,26 @@ public class Monster implements Entity {
         this.health = health;
     }
 
+    public Behaviour getBehaviour() {
+        return behaviour;
+    }
+
+    /**
+     * Sets how the monster moves
+     * A chasing monster attacks the player when it reaches the player's cell
+     * @param behaviour new behaviour
+     */
+    public void setBehaviour(Behaviour behaviour) {
+        if (behaviour == null) {
+            throw new IllegalArgumentException("Behaviour cannot be null");
+        }
+
+        if (behaviour == Behaviour.CHASE) {
+            this.level.getFlowField();
+        }
+        this.behaviour = behaviour;
+    }
+
 
     public String getName() {
         return name;
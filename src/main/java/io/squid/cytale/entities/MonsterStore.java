@@ -0,0 +1,585 @@
+package io.squid.cytale.entities;
+
+import io.squid.cytale.ai.FlowField;
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.grid.Connectivity;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.tick.InterestArea;
+import io.squid.cytale.util.LongHashSet;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Data oriented storage of the monsters of a level, one slot of parallel primitive arrays per monster
+ * Positions, health and behaviour are plain arrays walked by the movement system, see MovementSystem,
+ * StoredMonster is a facade giving the Entity view of a slot, created on demand
+ * Monsters are also chained per bucket of 2^BUCKET_SHIFT x 2^BUCKET_SHIFT cells, so cell lookups only walk a bucket
+ * Levels with more than MAX_DENSE_CELLS cells (chunked worlds) hash the buckets and the claimed cells, like SpatialIndex,
+ * so the store does not depend on their size, smaller levels keep them in plain arrays
+ * The random numbers of a monster are a hash of the level seed, the monster index and the tick,
+ * no generator state is kept and the moves do not depend on the thread planning them
+ * Monsters of the store tick before the other entities of the level, see Level.enableMonsterStore
+ *
+ * @author TopeEstLa
+ */
+public final class MonsterStore {
+
+    public static final int BUCKET_SHIFT = 4;
+    public static final int MAX_DENSE_CELLS = 1 << 26;
+
+    /**
+     * Plans of planMoves other than a direction, the monster stays, is skipped by the layout or the interest area, or is dormant
+     */
+    public static final int STAY = -1;
+    public static final int SKIPPED = -2;
+    public static final int DORMANT = -3;
+
+    private static final byte RANDOM_WALK = (byte) Behaviour.RANDOM_WALK.ordinal();
+    private static final Behaviour[] BEHAVIOURS = Behaviour.values();
+    private static final int NONE = -1;
+    private static final long EMPTY = Long.MIN_VALUE;
+    // directions of planMove : left, right, top, bottom
+    private static final int[] STEP_X = {-1, 1, 0, 0};
+    private static final int[] STEP_Y = {0, 0, -1, 1};
+
+    private final Level level;
+    private final long seed;
+
+    // bucket chains, indexed by bucket on dense levels, an open addressing table keyed by bucketKeys otherwise
+    private final int bucketColumns;
+    private long[] bucketKeys;
+    private int[] bucketHeads;
+    private int bucketCount;
+
+    private int count;
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int[] healths = new int[16];
+    private byte[] behaviours = new byte[16];
+    private int[] components = new int[16];
+    private int[] nextInBucket = new int[16];
+    private int[] previousInBucket = new int[16];
+    private int chasing;
+
+    private final long[] claimed;
+    private int[] claimedCells = new int[0];
+    private int claimedCount;
+    private final LongHashSet sparseClaimed;
+
+    MonsterStore(Level level) {
+        this.level = level;
+        this.seed = level.getSeed();
+        long cells = (long) level.getWidth() * level.getLength();
+        if (cells <= MAX_DENSE_CELLS) {
+            this.bucketColumns = ((level.getWidth() - 1) >> BUCKET_SHIFT) + 1;
+            this.bucketHeads = new int[this.bucketColumns * (((level.getLength() - 1) >> BUCKET_SHIFT) + 1)];
+            Arrays.fill(this.bucketHeads, NONE);
+            this.claimed = new long[(int) ((cells + 63) >>> 6)];
+            this.sparseClaimed = null;
+        } else {
+            this.bucketColumns = 0;
+            this.bucketKeys = new long[64];
+            this.bucketHeads = new int[64];
+            Arrays.fill(this.bucketKeys, EMPTY);
+            this.claimed = null;
+            this.sparseClaimed = new LongHashSet();
+        }
+    }
+
+    /**
+     * Adds a random walking monster
+     *
+     * @param x      X coordinate
+     * @param y      Y coordinate
+     * @param health health of the monster
+     * @return index of the monster
+     */
+    public int add(int x, int y, int health) {
+        if (x < 0 || y < 0 || x >= this.level.getWidth() || y >= this.level.getLength()) {
+            throw new IllegalArgumentException("Monster position is out of bounds");
+        }
+
+        if (this.count == this.xs.length) {
+            int capacity = this.count * 2;
+            this.xs = Arrays.copyOf(this.xs, capacity);
+            this.ys = Arrays.copyOf(this.ys, capacity);
+            this.healths = Arrays.copyOf(this.healths, capacity);
+            this.behaviours = Arrays.copyOf(this.behaviours, capacity);
+            this.components = Arrays.copyOf(this.components, capacity);
+            this.nextInBucket = Arrays.copyOf(this.nextInBucket, capacity);
+            this.previousInBucket = Arrays.copyOf(this.previousInBucket, capacity);
+        }
+
+        int index = this.count++;
+        this.xs[index] = x;
+        this.ys[index] = y;
+        this.healths[index] = health;
+        this.behaviours[index] = RANDOM_WALK;
+        Connectivity connectivity = this.level.getConnectivity();
+        this.components[index] = connectivity == null ? NONE : connectivity.getComponent(x, y);
+        this.link(index, this.bucketOf(x, y, true));
+        return index;
+    }
+
+    /**
+     * Caches the component of every monster, monsters never leave their component
+     */
+    void assignComponents(Connectivity connectivity) {
+        for (int i = 0; i < this.count; i++) {
+            this.components[i] = connectivity.getComponent(this.xs[i], this.ys[i]);
+        }
+    }
+
+    /**
+     * Finds the slot of the bucket of a cell in bucketHeads
+     * @return the slot, NONE if the bucket does not exist and create is false
+     */
+    private int bucketOf(int x, int y, boolean create) {
+        if (this.bucketKeys == null) {
+            return (y >> BUCKET_SHIFT) * this.bucketColumns + (x >> BUCKET_SHIFT);
+        }
+
+        long key = ((long) (x >> BUCKET_SHIFT) << 32) | (y >> BUCKET_SHIFT);
+        int mask = this.bucketKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.bucketKeys[slot] != EMPTY) {
+            if (this.bucketKeys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (!create) {
+            return NONE;
+        }
+
+        this.bucketKeys[slot] = key;
+        this.bucketHeads[slot] = NONE;
+        if (++this.bucketCount * 2 > this.bucketKeys.length) {
+            this.growBuckets();
+            return this.bucketOf(x, y, false);
+        }
+        return slot;
+    }
+
+    private void growBuckets() {
+        long[] oldKeys = this.bucketKeys;
+        int[] oldHeads = this.bucketHeads;
+        this.bucketKeys = new long[oldKeys.length * 2];
+        this.bucketHeads = new int[oldHeads.length * 2];
+        Arrays.fill(this.bucketKeys, EMPTY);
+
+        int mask = this.bucketKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (this.bucketKeys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            this.bucketKeys[slot] = oldKeys[i];
+            this.bucketHeads[slot] = oldHeads[i];
+        }
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    private void link(int index, int bucket) {
+        int head = this.bucketHeads[bucket];
+        this.nextInBucket[index] = head;
+        this.previousInBucket[index] = NONE;
+        if (head != NONE) {
+            this.previousInBucket[head] = index;
+        }
+        this.bucketHeads[bucket] = index;
+    }
+
+    private void unlink(int index, int bucket) {
+        int next = this.nextInBucket[index];
+        int previous = this.previousInBucket[index];
+        if (previous == NONE) {
+            this.bucketHeads[bucket] = next;
+        } else {
+            this.nextInBucket[previous] = next;
+        }
+        if (next != NONE) {
+            this.previousInBucket[next] = previous;
+        }
+    }
+
+    /**
+     * Moves a monster, keeping its bucket up to date
+     *
+     * @param index index of the monster
+     * @param x     X coordinate
+     * @param y     Y coordinate
+     */
+    public void setLocation(int index, int x, int y) {
+        int oldX = this.xs[index];
+        int oldY = this.ys[index];
+        if ((oldX >> BUCKET_SHIFT) != (x >> BUCKET_SHIFT) || (oldY >> BUCKET_SHIFT) != (y >> BUCKET_SHIFT)) {
+            // the chain is left before the new bucket is created, creating it may move the slots
+            this.unlink(index, this.bucketOf(oldX, oldY, false));
+            this.link(index, this.bucketOf(x, y, true));
+        }
+        this.xs[index] = x;
+        this.ys[index] = y;
+    }
+
+    /**
+     * Gets the first monster, by index, standing at x y
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return index of the monster, -1 if there is none
+     */
+    public int firstAt(int x, int y) {
+        int first = NONE;
+        int bucket = this.bucketOf(x, y, false);
+        if (bucket == NONE) {
+            return NONE;
+        }
+        for (int i = this.bucketHeads[bucket]; i != NONE; i = this.nextInBucket[i]) {
+            if (this.xs[i] == x && this.ys[i] == y && (first == NONE || i < first)) {
+                first = i;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Calls the action with the index of every monster standing at x y, in index order
+     *
+     * @param x      X coordinate
+     * @param y      Y coordinate
+     * @param action action receiving the indexes
+     */
+    public void forEachAt(int x, int y, IntConsumer action) {
+        int found = 0;
+        int[] indexes = null;
+        int bucket = this.bucketOf(x, y, false);
+        if (bucket == NONE) {
+            return;
+        }
+        for (int i = this.bucketHeads[bucket]; i != NONE; i = this.nextInBucket[i]) {
+            if (this.xs[i] == x && this.ys[i] == y) {
+                if (indexes == null) {
+                    indexes = new int[4];
+                } else if (found == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, found * 2);
+                }
+                indexes[found++] = i;
+            }
+        }
+
+        if (found > 1) {
+            Arrays.sort(indexes, 0, found);
+        }
+        for (int i = 0; i < found; i++) {
+            action.accept(indexes[i]);
+        }
+    }
+
+    /**
+     * Random number of a monster for a tick, a SplitMix64 hash of the seed, the monster and the tick
+     *
+     * @param index index of the monster
+     * @param tick  tick of the level
+     * @return 64 random bits
+     */
+    public long random(int index, long tick) {
+        long z = this.seed + (index + 1L) * 0x9E3779B97F4A7C15L + tick * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Chooses the direction a monster wants to move to, like Monster.planMove
+     * Only reads the level and the store, so monsters can be planned concurrently
+     *
+     * @param index index of the monster
+     * @param x     X coordinate of the monster
+     * @param y     Y coordinate of the monster
+     * @param tick  tick of the level
+     * @return direction from 0 to 3, see getStepX and getStepY, STAY to stay
+     */
+    public int planMove(int index, int x, int y, long tick) {
+        if (this.behaviours[index] != RANDOM_WALK) {
+            long step = this.level.getFlowField().nextStep(x, y);
+            if (step != FlowField.NO_STEP) {
+                if (Location.unpackX(step) != x) {
+                    return Location.unpackX(step) == this.level.stepX(x, -1) ? 0 : 1;
+                }
+                if (Location.unpackY(step) != y) {
+                    return Location.unpackY(step) == this.level.stepY(y, -1) ? 2 : 3;
+                }
+                return STAY;
+            }
+        }
+
+        int direction = (int) (this.random(index, tick) >>> 62);
+        int nextX = this.level.stepX(x, STEP_X[direction]);
+        int nextY = this.level.stepY(y, STEP_Y[direction]);
+        if ((this.level.getLayout().getFlags(nextX, nextY) & LevelGrid.MONSTER_WALKABLE) != 0) {
+            return direction;
+        }
+        return STAY;
+    }
+
+    /**
+     * Plans the moves of a range of monsters, same moves as planMove
+     * A single loop over the arrays of the store, monsters are planned concurrently by disjoint ranges
+     *
+     * @param from       first monster
+     * @param to         last monster, exclusive
+     * @param tick       tick of the level
+     * @param interest   interest area of the level, null if none
+     * @param directions receives the direction of every monster of the range, or STAY, SKIPPED or DORMANT
+     */
+    public void planMoves(int from, int to, long tick, InterestArea interest, int[] directions) {
+        LevelGrid layout = this.level.getLayout();
+        boolean[] awake = this.level.getAwakeComponents();
+        int width = this.level.getWidth();
+        int length = this.level.getLength();
+        int[] xs = this.xs;
+        int[] ys = this.ys;
+        int[] components = this.components;
+        byte[] behaviours = this.behaviours;
+        long hash = this.seed + (from + 1L) * 0x9E3779B97F4A7C15L + tick * 0xD1B54A32D192ED03L;
+
+        for (int i = from; i < to; i++, hash += 0x9E3779B97F4A7C15L) {
+            int x = xs[i];
+            int y = ys[i];
+            int component = components[i];
+            if (component != NONE && !awake[component]) {
+                directions[i] = DORMANT;
+                continue;
+            }
+            if (!layout.isActive(x, y) || (interest != null && !interest.shouldTick(x, y, i))) {
+                directions[i] = SKIPPED;
+                continue;
+            }
+            if (behaviours[i] != RANDOM_WALK) {
+                directions[i] = this.planMove(i, x, y, tick);
+                continue;
+            }
+
+            long z = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            // table lookups instead of a switch, the direction is random and its branches would be mispredicted
+            int direction = (int) ((z ^ (z >>> 31)) >>> 62);
+            x += STEP_X[direction];
+            y += STEP_Y[direction];
+            if (x < 0 || x == width) {
+                x = x < 0 ? width - 1 : 0;
+            }
+            if (y < 0 || y == length) {
+                y = y < 0 ? length - 1 : 0;
+            }
+            directions[i] = (layout.getFlags(x, y) & LevelGrid.MONSTER_WALKABLE) != 0 ? direction : STAY;
+        }
+    }
+
+    /**
+     * Moves the first count monsters in their planned direction, in index order
+     * A cell is entered by the first monster claiming it, it stays claimed until releaseClaims, see isClaimed
+     *
+     * @param count      number of monsters planned
+     * @param directions directions filled by planMoves
+     * @param moved      receives the indexes of the monsters which moved, in index order
+     * @return number of monsters which moved
+     */
+    public int applyMoves(int count, int[] directions, int[] moved) {
+        int width = this.level.getWidth();
+        int length = this.level.getLength();
+        int[] xs = this.xs;
+        int[] ys = this.ys;
+        long[] claimed = this.claimed;
+        if (claimed != null && this.claimedCells.length < count) {
+            this.claimedCells = new int[count];
+        }
+
+        int movedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int direction = directions[i];
+            if (direction < 0) {
+                continue;
+            }
+
+            int x = xs[i] + STEP_X[direction];
+            int y = ys[i] + STEP_Y[direction];
+            if (x < 0 || x == width) {
+                x = x < 0 ? width - 1 : 0;
+            }
+            if (y < 0 || y == length) {
+                y = y < 0 ? length - 1 : 0;
+            }
+            if (claimed != null) {
+                int cell = y * width + x;
+                long bit = 1L << cell;
+                if ((claimed[cell >>> 6] & bit) != 0) {
+                    continue;
+                }
+                claimed[cell >>> 6] |= bit;
+                this.claimedCells[movedCount] = cell;
+            } else if (!this.sparseClaimed.add(Location.pack(x, y))) {
+                continue;
+            }
+
+            moved[movedCount++] = i;
+            this.setLocation(i, x, y);
+        }
+        this.claimedCount = movedCount;
+        return movedCount;
+    }
+
+    /**
+     * Releases the cells claimed by the last applyMoves, before planning the next tick
+     */
+    public void releaseClaims() {
+        if (this.claimed == null) {
+            this.sparseClaimed.clear();
+            return;
+        }
+
+        for (int i = 0; i < this.claimedCount; i++) {
+            int cell = this.claimedCells[i];
+            this.claimed[cell >>> 6] &= ~(1L << cell);
+        }
+        this.claimedCount = 0;
+    }
+
+    /**
+     * Checks if a monster can never meet a player, see Level.setConnectivity
+     *
+     * @param index index of the monster
+     * @return true if the monster is dormant
+     */
+    public boolean isDormant(int index) {
+        int component = this.components[index];
+        return component != NONE && !this.level.isComponentAwake(component);
+    }
+
+    /**
+     * Checks if a monster of the store entered a cell during the current tick
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the cell is claimed
+     */
+    public boolean isClaimed(int x, int y) {
+        if (this.claimed == null) {
+            return this.sparseClaimed.contains(Location.pack(x, y));
+        }
+
+        int cell = y * this.level.getWidth() + x;
+        return (this.claimed[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    /**
+     * Gets the Entity view of a monster
+     *
+     * @param index index of the monster
+     * @return new facade of the monster
+     */
+    public StoredMonster get(int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IllegalArgumentException("Unknown monster: " + index);
+        }
+        return new StoredMonster(this, index);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    public int getHealth(int index) {
+        return healths[index];
+    }
+
+    public void setHealth(int index, int health) {
+        this.healths[index] = health;
+    }
+
+    public Behaviour getBehaviour(int index) {
+        return BEHAVIOURS[behaviours[index]];
+    }
+
+    /**
+     * Sets how a monster moves, see Monster.setBehaviour
+     *
+     * @param index     index of the monster
+     * @param behaviour new behaviour
+     */
+    public void setBehaviour(int index, Behaviour behaviour) {
+        if (behaviour == null) {
+            throw new IllegalArgumentException("Behaviour cannot be null");
+        }
+
+        if (behaviour == Behaviour.CHASE) {
+            this.level.getFlowField();
+        }
+        if ((this.behaviours[index] == RANDOM_WALK) != (behaviour == Behaviour.RANDOM_WALK)) {
+            this.chasing += behaviour == Behaviour.CHASE ? 1 : -1;
+        }
+        this.behaviours[index] = (byte) behaviour.ordinal();
+    }
+
+    /**
+     * Checks if a monster chases the players
+     *
+     * @param index index of the monster
+     * @return true if the monster chases
+     */
+    public boolean isChasing(int index) {
+        return behaviours[index] != RANDOM_WALK;
+    }
+
+    /**
+     * Gets the X offset of a direction of planMove
+     *
+     * @param direction direction from 0 to 3
+     * @return -1, 0 or 1
+     */
+    public static int getStepX(int direction) {
+        return STEP_X[direction];
+    }
+
+    /**
+     * Gets the Y offset of a direction of planMove
+     *
+     * @param direction direction from 0 to 3
+     * @return -1, 0 or 1
+     */
+    public static int getStepY(int direction) {
+        return STEP_Y[direction];
+    }
+
+    /**
+     * Gets the number of chasing monsters, the movement system skips the flow field when there is none
+     *
+     * @return chasing monsters
+     */
+    public int getChasingCount() {
+        return chasing;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,28 @@
+package io.squid.cytale.entities;
+
+/**
+ * Entity whose tick is a single move
+ * The move is first planned, only reading the level and the entity itself,
+ * then applied, so tick schedulers can plan many entities in parallel
+ * Entities draw their random numbers from their own generator, so the moves do not depend on the planning thread
+ *
+ * @author TopeEstLa
+ */
+public interface MovingEntity extends Entity {
+
+    /**
+     * Chooses the cell the entity wants to move to
+     * Must not modify the level or the entity, apart from its own random generator
+     *
+     * @return target location packed with Location.pack, the current location to stay
+     */
+    long planMove();
+
+    /**
+     * Moves the entity to a location previously returned by planMove
+     *
+     * @param target target location packed with Location.pack
+     */
+    void applyMove(long target);
+
+}
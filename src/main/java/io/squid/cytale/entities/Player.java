@@ -13,7 +13,7 @@ public class Player {
     private int score;
     private int health;
 
-    private Location location;
+    private final Location location;
 
     /**
      * Default constructor for Player
@@ -108,10 +108,20 @@ public class Player {
 
     /**
      * Sets the player's location
+     * The coordinates are copied, the given location is not kept
      * @param location New location of the player
      */
     public void setLocation(Location location) {
-        this.location = location;
+        this.location.set(location.getX(), location.getY());
+    }
+
+    /**
+     * Sets the player's location
+     * @param x New X coordinate of the player
+     * @param y New Y coordinate of the player
+     */
+    public void setLocation(int x, int y) {
+        this.location.set(x, y);
     }
 
     /**
@@ -154,6 +164,22 @@ public class Player {
         return location;
     }
 
+    /**
+     * Gets the X coordinate of the player
+     * @return X coordinate
+     */
+    public int getX() {
+        return location.getX();
+    }
+
+    /**
+     * Gets the Y coordinate of the player
+     * @return Y coordinate
+     */
+    public int getY() {
+        return location.getY();
+    }
+
     /**
      * Gets the total number of players created
      * @return Total number of players created
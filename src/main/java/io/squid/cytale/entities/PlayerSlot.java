@@ -0,0 +1,61 @@
+package io.squid.cytale.entities;
+
+import io.squid.cytale.enums.Direction;
+
+/**
+ * Place of a player in a level
+ * with the spawn of the player and the move queued for the next tick
+ * Slots are numbered in joining order, the first player of the level has id 0
+ * Queued moves are applied by tickLevel in id order, see Level.queueMove
+ *
+ * @author TopeEstLa
+ */
+public final class PlayerSlot {
+
+    private final int id;
+    private final Player player;
+    private final Location spawn;
+
+    Direction queuedMove;
+    PlayerSlot nextAtCell;
+    boolean died;
+    boolean removed;
+
+    PlayerSlot(int id, Player player, int spawnX, int spawnY) {
+        this.id = id;
+        this.player = player;
+        this.spawn = new Location(spawnX, spawnY);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets where the player appears and comes back after being damaged
+     * @return spawn of the player, must not be modified
+     */
+    public Location getSpawn() {
+        return spawn;
+    }
+
+    /**
+     * Gets the move applied to the player on the next tick
+     * @return queued move, null if the player waits
+     */
+    public Direction getQueuedMove() {
+        return queuedMove;
+    }
+
+    /**
+     * Checks if the player left the level
+     * @return true once removed with Level.removePlayer
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+}
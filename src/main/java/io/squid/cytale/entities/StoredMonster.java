@@ -0,0 +1,130 @@
+package io.squid.cytale.entities;
+
+import io.squid.cytale.enums.Behaviour;
+
+/**
+ * Entity view of a monster of a MonsterStore
+ * Holds no state, every call reads or writes the arrays of the store, so views can be created and dropped freely
+ * Two views of the same monster are equal
+ *
+ * @author TopeEstLa
+ */
+public final class StoredMonster implements MovingEntity {
+
+    private final MonsterStore store;
+    private final int index;
+
+    StoredMonster(MonsterStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Ticks the monster alone, the movement system ticks the whole store at once, see MovementSystem
+     */
+    @Override
+    public void tick() {
+        this.applyMove(this.planMove());
+    }
+
+    /**
+     * Same moves as the movement system, without the claims of the other monsters
+     */
+    @Override
+    public long planMove() {
+        int x = this.store.getX(this.index);
+        int y = this.store.getY(this.index);
+        Level level = this.store.getLevel();
+        int direction = this.store.planMove(this.index, x, y, level.getTick());
+        if (direction == MonsterStore.STAY) {
+            return Location.pack(x, y);
+        }
+        return Location.pack(level.stepX(x, MonsterStore.getStepX(direction)), level.stepY(y, MonsterStore.getStepY(direction)));
+    }
+
+    @Override
+    public void applyMove(long target) {
+        this.store.setLocation(this.index, Location.unpackX(target), Location.unpackY(target));
+        if (this.store.isChasing(this.index)) {
+            Level level = this.store.getLevel();
+            PlayerSlot reached = level.getPlayerAt(this.getX(), this.getY());
+            if (reached != null) {
+                level.attackPlayer(this, reached);
+            }
+        }
+    }
+
+    @Override
+    public void interact(Player player) {
+        Level level = this.store.getLevel();
+        level.attackPlayer(this, level.getPlayerSlot(player));
+    }
+
+    /**
+     * Moves the monster without walking, used when restoring a snapshot
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public void setLocation(int x, int y) {
+        this.store.setLocation(this.index, x, y);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return "MONSTER" + index;
+    }
+
+    public int getHealth() {
+        return this.store.getHealth(this.index);
+    }
+
+    public void setHealth(int health) {
+        this.store.setHealth(this.index, health);
+    }
+
+    public Behaviour getBehaviour() {
+        return this.store.getBehaviour(this.index);
+    }
+
+    public void setBehaviour(Behaviour behaviour) {
+        this.store.setBehaviour(this.index, behaviour);
+    }
+
+    @Override
+    public int getX() {
+        return this.store.getX(this.index);
+    }
+
+    @Override
+    public int getY() {
+        return this.store.getY(this.index);
+    }
+
+    /**
+     * Gets a copy of the location, moving it does not move the monster, see setLocation
+     */
+    @Override
+    public Location getLocation() {
+        return new Location(this.getX(), this.getY());
+    }
+
+    @Override
+    public char getSymbol() {
+        return 'R';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof StoredMonster monster)) return false;
+        return index == monster.index && store == monster.store;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + index;
+    }
+}
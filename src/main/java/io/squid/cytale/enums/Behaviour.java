@@ -0,0 +1,20 @@
+package io.squid.cytale.enums;
+
+/**
+ * How a monster chooses its moves
+ * @author TopeEstLa
+ */
+public enum Behaviour {
+
+    /**
+     * One step in a random direction every tick
+     */
+    RANDOM_WALK,
+    /**
+     * One step toward the player following the flow field of the level,
+     * random walk when the player is out of reach
+     */
+    CHASE,
+    ;
+
+}
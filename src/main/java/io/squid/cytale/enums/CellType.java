@@ -12,6 +12,14 @@ public enum CellType {
     TRAP('*', true),
     ;
 
+    private static final CellType[] BY_SYMBOL = new CellType[128];
+
+    static {
+        for (CellType type : values()) {
+            BY_SYMBOL[type.getSymbol()] = type;
+        }
+    }
+
     private final char symbol;
     private final boolean walkable;
 
@@ -32,13 +40,17 @@ public enum CellType {
         return walkable;
     }
 
+    /**
+     * Gets the cell type of a symbol with a lookup table
+     * @param symbol symbol of the cell
+     * @return CellType of the symbol
+     */
     public static CellType fromSymbol(char symbol) {
-        for (CellType type : values()) {
-            if (type.getSymbol() == symbol) {
-                return type;
-            }
+        CellType type = symbol < BY_SYMBOL.length ? BY_SYMBOL[symbol] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown cell type symbol: " + symbol);
         }
-        throw new IllegalArgumentException("Unknown cell type symbol: " + symbol);
+        return type;
     }
 
 }
@@ -0,0 +1,55 @@
+package io.squid.cytale.enums;
+
+/**
+ * Represents the commands a player can type
+ * @author TopeEstLa
+ */
+public enum Command {
+
+    TOP("z", Direction.TOP),
+    LEFT("q", Direction.LEFT),
+    BOT("s", Direction.BOT),
+    RIGHT("d", Direction.RIGHT),
+    EXIT("exit", null),
+    STATS("stats", null),
+    ;
+
+    private final String input;
+    private final Direction direction;
+
+    Command(String input, Direction direction) {
+        this.input = input;
+        this.direction = direction;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Gets the direction of a move command
+     * @return Direction, null if the command is not a move
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isMove() {
+        return direction != null;
+    }
+
+    /**
+     * Gets the command typed by the player
+     * @param input line typed by the player
+     * @return Command, null if the input is not a command
+     */
+    public static Command fromInput(String input) {
+        for (Command command : values()) {
+            if (command.getInput().equals(input)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+}
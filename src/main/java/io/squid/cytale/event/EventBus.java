@@ -0,0 +1,230 @@
+package io.squid.cytale.event;
+
+import io.squid.cytale.entities.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Events of a level, published during a tick and dispatched to the subscribers in one batch at the end of it
+ * Events are written in a ring of preallocated slots, publishing does not allocate
+ * Events of a type nobody subscribed to are dropped right away, publishers can also check wants to skip building them
+ * The ring is dispatched early if it fills up during a tick
+ * Not thread safe, events are published and dispatched on the ticking thread
+ *
+ * @author TopeEstLa
+ */
+public class EventBus {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private LevelEvent[] ring;
+    private int mask;
+    private long head;
+    private long tail;
+    private long published;
+    private boolean dispatching;
+
+    private EventSubscriber[] subscribers = new EventSubscriber[0];
+    private int[] masks = new int[0];
+    private int wanted;
+
+    /**
+     * Constructor for EventBus
+     * Ring of DEFAULT_CAPACITY events
+     */
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for EventBus
+     * @param capacity number of events buffered before an early dispatch, rounded up to a power of two
+     */
+    public EventBus(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new LevelEvent[size];
+        for (int i = 0; i < size; i++) {
+            this.ring[i] = new LevelEvent();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Subscribes to some types of events
+     * @param subscriber subscriber to add
+     * @param types types to receive, every type when empty
+     */
+    public void subscribe(EventSubscriber subscriber, EventType... types) {
+        int subscription = 0;
+        for (EventType type : types) {
+            subscription |= type.bit();
+        }
+        if (types.length == 0) {
+            subscription = -1;
+        }
+        this.add(subscriber, subscription);
+    }
+
+    /**
+     * Subscribes to the end of the batches only, onEvent is never called
+     * Unlike subscribe, no event type gets published on behalf of the subscriber
+     * @param subscriber subscriber to add
+     */
+    public void subscribeBatchEnd(EventSubscriber subscriber) {
+        this.add(subscriber, 0);
+    }
+
+    private void add(EventSubscriber subscriber, int subscription) {
+        int count = this.subscribers.length;
+        this.subscribers = Arrays.copyOf(this.subscribers, count + 1);
+        this.masks = Arrays.copyOf(this.masks, count + 1);
+        this.subscribers[count] = subscriber;
+        this.masks[count] = subscription;
+        this.wanted |= subscription;
+    }
+
+    /**
+     * Removes every subscription of a subscriber
+     * @param subscriber subscriber to remove
+     */
+    public void unsubscribe(EventSubscriber subscriber) {
+        int kept = 0;
+        EventSubscriber[] keptSubscribers = new EventSubscriber[this.subscribers.length];
+        int[] keptMasks = new int[this.masks.length];
+        int keptWanted = 0;
+        for (int i = 0; i < this.subscribers.length; i++) {
+            if (this.subscribers[i] != subscriber) {
+                keptSubscribers[kept] = this.subscribers[i];
+                keptMasks[kept] = this.masks[i];
+                keptWanted |= this.masks[i];
+                kept++;
+            }
+        }
+        this.subscribers = Arrays.copyOf(keptSubscribers, kept);
+        this.masks = Arrays.copyOf(keptMasks, kept);
+        this.wanted = keptWanted;
+    }
+
+    /**
+     * Checks if at least one subscriber receives a type of events
+     * @param type type of events
+     * @return true if events of the type are dispatched
+     */
+    public boolean wants(EventType type) {
+        return (this.wanted & type.bit()) != 0;
+    }
+
+    /**
+     * Publishes an event, dispatched with the next batch
+     * @param type type of the event
+     * @param tick tick of the event
+     * @param x X coordinate of the event
+     * @param y Y coordinate of the event
+     * @param source entity behind the event, null if none
+     * @param value extra value, see EventType
+     */
+    public void publish(EventType type, long tick, int x, int y, Entity source, long value) {
+        this.publish(type, tick, x, y, source, 0, value);
+    }
+
+    /**
+     * Publishes an event concerning a player, dispatched with the next batch
+     * @param type type of the event
+     * @param tick tick of the event
+     * @param x X coordinate of the event
+     * @param y Y coordinate of the event
+     * @param source entity behind the event, null if none
+     * @param player id of the PlayerSlot concerned by the event
+     * @param value extra value, see EventType
+     */
+    public void publish(EventType type, long tick, int x, int y, Entity source, int player, long value) {
+        if ((this.wanted & type.bit()) == 0) {
+            return;
+        }
+
+        if (this.head - this.tail == this.ring.length) {
+            if (this.dispatching) {
+                this.grow();
+            } else {
+                this.dispatch(tick);
+            }
+        }
+        this.ring[(int) (this.head & this.mask)].set(type, tick, x, y, source, player, value);
+        this.head++;
+        this.published++;
+    }
+
+    /**
+     * Dispatches the pending events to the subscribers, events published meanwhile are dispatched too
+     * @param tick tick of the batch
+     */
+    public void dispatch(long tick) {
+        if (this.dispatching) {
+            return;
+        }
+
+        this.dispatching = true;
+        try {
+            while (this.tail < this.head) {
+                LevelEvent event = this.ring[(int) (this.tail & this.mask)];
+                int bit = event.getType().bit();
+                EventSubscriber[] current = this.subscribers;
+                int[] currentMasks = this.masks;
+                for (int i = 0; i < current.length; i++) {
+                    if ((currentMasks[i] & bit) != 0) {
+                        current[i].onEvent(event);
+                    }
+                }
+                event.clear();
+                this.tail++;
+            }
+
+            for (EventSubscriber subscriber : this.subscribers) {
+                subscriber.onBatchEnd(tick);
+            }
+        } finally {
+            this.dispatching = false;
+        }
+    }
+
+    /**
+     * Doubles the ring when it fills up during a dispatch, keeping the pending events in order
+     */
+    private void grow() {
+        LevelEvent[] grown = new LevelEvent[this.ring.length * 2];
+        int pending = (int) (this.head - this.tail);
+        for (int i = 0; i < pending; i++) {
+            grown[i] = this.ring[(int) ((this.tail + i) & this.mask)];
+        }
+        for (int i = pending; i < grown.length; i++) {
+            grown[i] = new LevelEvent();
+        }
+        this.ring = grown;
+        this.mask = grown.length - 1;
+        this.head -= this.tail;
+        this.tail = 0;
+    }
+
+    /**
+     * Gets the number of events waiting for the next dispatch
+     * @return pending events
+     */
+    public int getPending() {
+        return (int) (this.head - this.tail);
+    }
+
+    /**
+     * Gets the number of events published since the bus was created
+     * @return published events
+     */
+    public long getPublished() {
+        return published;
+    }
+}
@@ -0,0 +1,25 @@
+package io.squid.cytale.event;
+
+/**
+ * Receives the events of a level, see EventBus.subscribe
+ * Called on the thread ticking the level, once per tick with the events of the tick
+ *
+ * @author TopeEstLa
+ */
+@FunctionalInterface
+public interface EventSubscriber {
+
+    /**
+     * Called for every event of a subscribed type, in publishing order
+     * The event is reused after the call and must not be kept
+     * @param event the event
+     */
+    void onEvent(LevelEvent event);
+
+    /**
+     * Called once the events of a batch were all dispatched
+     * @param tick tick of the batch
+     */
+    default void onBatchEnd(long tick) {
+    }
+}
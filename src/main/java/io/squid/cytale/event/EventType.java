@@ -0,0 +1,52 @@
+package io.squid.cytale.event;
+
+/**
+ * Kinds of level events, see EventBus
+ * Events about "the player" tell which player of the level with LevelEvent.getPlayer
+ * @author TopeEstLa
+ */
+public enum EventType {
+
+    /**
+     * The player picked a coin, at x y
+     */
+    COIN_COLLECTED,
+    /**
+     * The player walked on a trap, at x y
+     */
+    TRAP_TRIGGERED,
+    /**
+     * The player lost health, value is the health left, x y where it happened
+     */
+    PLAYER_DAMAGED,
+    /**
+     * An entity attacked the player, source is the attacker, x y its location, value is the health left
+     */
+    PLAYER_ATTACKED,
+    /**
+     * The player moved to x y
+     */
+    PLAYER_MOVED,
+    /**
+     * An entity moved to x y, source is the entity, value is its previous location packed with Location.pack
+     */
+    ENTITY_MOVED,
+    /**
+     * The last coin of the level was collected
+     */
+    LEVEL_COMPLETED,
+    /**
+     * A player has no health left
+     */
+    PLAYER_DIED,
+    ;
+
+    /**
+     * Gets the bit of the type in the subscription masks
+     * @return 1 shifted by the ordinal
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+}
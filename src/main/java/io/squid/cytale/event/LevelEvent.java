@@ -0,0 +1,86 @@
+package io.squid.cytale.event;
+
+import io.squid.cytale.entities.Entity;
+
+/**
+ * Slot of the event ring of an EventBus
+ * Slots are reused once dispatched, subscribers must copy what they keep
+ *
+ * @author TopeEstLa
+ */
+public final class LevelEvent {
+
+    private EventType type;
+    private long tick;
+    private int x;
+    private int y;
+    private Entity source;
+    private int player;
+    private long value;
+
+    LevelEvent() {
+    }
+
+    void set(EventType type, long tick, int x, int y, Entity source, int player, long value) {
+        this.type = type;
+        this.tick = tick;
+        this.x = x;
+        this.y = y;
+        this.source = source;
+        this.player = player;
+        this.value = value;
+    }
+
+    void clear() {
+        this.source = null;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the tick during which the event happened
+     * @return number of ticks the level played before the event
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the entity behind the event
+     * @return the entity, null for events of the player or the level
+     */
+    public Entity getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the player concerned by the event
+     * @return id of the PlayerSlot, 0 for the first player of the level
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the extra value of the event, its meaning depends on the type
+     * @return value of the event
+     */
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + tick + "(" + x + ", " + y + ")";
+    }
+}
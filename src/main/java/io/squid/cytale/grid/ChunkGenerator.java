@@ -0,0 +1,46 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.enums.CellType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fills the cells of a chunk the first time it is needed, see ChunkedLevelGrid
+ * Must be deterministic, the same chunk is generated again when it was unloaded without being modified
+ *
+ * @author TopeEstLa
+ */
+@FunctionalInterface
+public interface ChunkGenerator {
+
+    /**
+     * Fills a chunk, every cell is a FLOOR without coin when called
+     * @param chunkX chunk X coordinate (x / CHUNK_SIZE)
+     * @param chunkY chunk Y coordinate (y / CHUNK_SIZE)
+     * @param chunk cells of the chunk, CHUNK_SIZE x CHUNK_SIZE
+     */
+    void generate(int chunkX, int chunkY, PackedLevelGrid chunk);
+
+    /**
+     * Generator scattering walls and coins at random
+     * @param seed seed of the world, mixed with the chunk coordinates
+     * @param wallChance probability of a cell to be a wall
+     * @param coinChance probability of a floor cell to hold a coin
+     * @return the generator
+     */
+    static ChunkGenerator scattered(long seed, double wallChance, double coinChance) {
+        return (chunkX, chunkY, chunk) -> {
+            SplittableRandom random = new SplittableRandom(seed ^ (((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L);
+            for (int y = 0; y < chunk.getLength(); y++) {
+                for (int x = 0; x < chunk.getWidth(); x++) {
+                    double roll = random.nextDouble();
+                    if (roll < wallChance) {
+                        chunk.setType(x, y, CellType.WALL);
+                    } else if (roll < wallChance + coinChance) {
+                        chunk.setCoin(x, y, true);
+                    }
+                }
+            }
+        };
+    }
+}
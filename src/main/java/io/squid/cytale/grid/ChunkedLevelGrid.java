@@ -0,0 +1,307 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.util.LongHashSet;
+import io.squid.cytale.util.LongObjectMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * LevelGrid split in square chunks of CHUNK_SIZE tiles, only the chunks around the player are kept in memory
+ * A chunk is loaded the first time one of its cells is read, from the swap directory if it was modified before,
+ * from the ChunkGenerator otherwise
+ * focus loads the chunks within loadRadius of the player and unloads the ones further than loadRadius + 1,
+ * modified chunks are written to the swap directory when unloaded
+ * Only the entities within loadRadius - 1 chunks of the player are active, so the cells they read are always loaded
+ * The world wraps around like any other level, memory scales with the loaded area and not the world size
+ * Coins are counted when their chunk is generated, the coin index only covers the explored part of the world
+ * Chunks are loaded on the ticking thread, reads from other threads must stay in loaded chunks
+ *
+ * @author TopeEstLa
+ */
+public class ChunkedLevelGrid implements LevelGrid {
+
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    public static final int MAX_SIZE = 1 << 30;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int length;
+    private final int chunksX;
+    private final int chunksY;
+    private final int loadRadius;
+
+    private final ChunkGenerator generator;
+    private final Path swapDirectory;
+    private final CoinIndex coinIndex;
+
+    private final LongObjectMap<Chunk> chunks = new LongObjectMap<>();
+    private final LongHashSet generated = new LongHashSet();
+    private final LongHashSet swapped = new LongHashSet();
+
+    private int focusChunkX = -1;
+    private int focusChunkY = -1;
+    private long chunksLoaded;
+    private long chunksUnloaded;
+
+    /**
+     * Constructor for ChunkedLevelGrid
+     * @param width width of the world, multiple of CHUNK_SIZE
+     * @param length length of the world, multiple of CHUNK_SIZE
+     * @param loadRadius number of chunks kept loaded around the player, at least 1
+     * @param generator fills the chunks the first time they are loaded
+     * @param swapDirectory directory receiving the modified chunks while they are unloaded
+     */
+    public ChunkedLevelGrid(int width, int length, int loadRadius, ChunkGenerator generator, Path swapDirectory) {
+        if (width <= 0 || length <= 0 || width > MAX_SIZE || length > MAX_SIZE) {
+            throw new IllegalArgumentException("World size must be between 1 and " + MAX_SIZE);
+        }
+
+        if ((width & CHUNK_MASK) != 0 || (length & CHUNK_MASK) != 0) {
+            throw new IllegalArgumentException("World size must be a multiple of " + CHUNK_SIZE + ": " + width + "x" + length);
+        }
+
+        if (loadRadius < 1) {
+            throw new IllegalArgumentException("Load radius must be at least 1");
+        }
+
+        try {
+            Files.createDirectories(swapDirectory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error creating swap directory: " + e.getMessage());
+        }
+
+        this.width = width;
+        this.length = length;
+        this.chunksX = width >> CHUNK_SHIFT;
+        this.chunksY = length >> CHUNK_SHIFT;
+        this.loadRadius = loadRadius;
+        this.generator = generator;
+        this.swapDirectory = swapDirectory;
+        this.coinIndex = new CoinIndex(width, length);
+    }
+
+    private Chunk chunk(int x, int y) {
+        int chunkX = x >> CHUNK_SHIFT;
+        int chunkY = y >> CHUNK_SHIFT;
+        long key = Location.pack(chunkX, chunkY);
+        Chunk chunk = this.chunks.get(key);
+        return chunk != null ? chunk : load(chunkX, chunkY, key);
+    }
+
+    private Chunk load(int chunkX, int chunkY, long key) {
+        PackedLevelGrid cells;
+        if (this.swapped.contains(key)) {
+            try {
+                cells = new PackedLevelGrid(CHUNK_SIZE, CHUNK_SIZE, Files.readAllBytes(swapFile(chunkX, chunkY)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading chunk " + chunkX + " " + chunkY, e);
+            }
+        } else {
+            cells = new PackedLevelGrid(CHUNK_SIZE, CHUNK_SIZE);
+            this.generator.generate(chunkX, chunkY, cells);
+            if (this.generated.add(key)) {
+                countCoins(chunkX, chunkY, cells);
+            }
+        }
+
+        Chunk chunk = new Chunk(cells);
+        this.chunks.put(key, chunk);
+        this.chunksLoaded++;
+        return chunk;
+    }
+
+    private void countCoins(int chunkX, int chunkY, PackedLevelGrid cells) {
+        byte[] raw = cells.getCells();
+        for (int i = 0; i < raw.length; i++) {
+            if ((raw[i] & PackedLevelGrid.COIN_BIT) != 0) {
+                this.coinIndex.coinAdded((chunkX << CHUNK_SHIFT) + (i & CHUNK_MASK), (chunkY << CHUNK_SHIFT) + (i >> CHUNK_SHIFT));
+            }
+        }
+    }
+
+    private void unload(long key) {
+        Chunk chunk = this.chunks.remove(key);
+        if (chunk.dirty) {
+            int chunkX = Location.unpackX(key);
+            int chunkY = Location.unpackY(key);
+            try {
+                Files.write(swapFile(chunkX, chunkY), chunk.cells.getCells());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error writing chunk " + chunkX + " " + chunkY, e);
+            }
+            this.swapped.add(key);
+        }
+        this.chunksUnloaded++;
+    }
+
+    private Path swapFile(int chunkX, int chunkY) {
+        return this.swapDirectory.resolve(chunkX + "_" + chunkY + ".chunk");
+    }
+
+    /**
+     * Loads the chunks within loadRadius of the player and unloads the ones further than loadRadius + 1
+     * Nothing happens until the player enters another chunk
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     */
+    @Override
+    public void focus(int x, int y) {
+        int chunkX = x >> CHUNK_SHIFT;
+        int chunkY = y >> CHUNK_SHIFT;
+        if (chunkX == this.focusChunkX && chunkY == this.focusChunkY) {
+            return;
+        }
+        this.focusChunkX = chunkX;
+        this.focusChunkY = chunkY;
+
+        for (long key : this.chunks.keys()) {
+            if (chunkDistance(Location.unpackX(key), Location.unpackY(key)) > this.loadRadius + 1) {
+                unload(key);
+            }
+        }
+
+        for (int dy = -this.loadRadius; dy <= this.loadRadius; dy++) {
+            for (int dx = -this.loadRadius; dx <= this.loadRadius; dx++) {
+                int loadX = Math.floorMod(chunkX + dx, this.chunksX);
+                int loadY = Math.floorMod(chunkY + dy, this.chunksY);
+                long key = Location.pack(loadX, loadY);
+                if (this.chunks.get(key) == null) {
+                    load(loadX, loadY, key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the cell is within loadRadius - 1 chunks of the last focus
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the entities of the cell should be ticked
+     */
+    @Override
+    public boolean isActive(int x, int y) {
+        return this.focusChunkX >= 0 && chunkDistance(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT) < this.loadRadius;
+    }
+
+    /**
+     * Chebyshev distance in chunks to the focus chunk, going around the world when shorter
+     */
+    private int chunkDistance(int chunkX, int chunkY) {
+        int dx = Math.abs(chunkX - this.focusChunkX);
+        int dy = Math.abs(chunkY - this.focusChunkY);
+        return Math.max(Math.min(dx, this.chunksX - dx), Math.min(dy, this.chunksY - dy));
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public CellType getType(int x, int y) {
+        return chunk(x, y).cells.getType(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return chunk(x, y).cells.getFlags(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    @Override
+    public void setType(int x, int y, CellType type) {
+        Chunk chunk = chunk(x, y);
+        chunk.cells.setType(x & CHUNK_MASK, y & CHUNK_MASK, type);
+        chunk.dirty = true;
+    }
+
+    @Override
+    public boolean hasCoin(int x, int y) {
+        return chunk(x, y).cells.hasCoin(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    @Override
+    public void setCoin(int x, int y, boolean coin) {
+        Chunk chunk = chunk(x, y);
+        int localX = x & CHUNK_MASK;
+        int localY = y & CHUNK_MASK;
+        if (chunk.cells.hasCoin(localX, localY) == coin) {
+            return;
+        }
+
+        chunk.cells.setCoin(localX, localY, coin);
+        chunk.dirty = true;
+        if (coin) {
+            this.coinIndex.coinAdded(x, y);
+        } else {
+            this.coinIndex.coinRemoved(x, y);
+        }
+    }
+
+    @Override
+    public CoinIndex getCoinIndex() {
+        return coinIndex;
+    }
+
+    /**
+     * Gets the number of chunks in memory
+     * @return loaded chunks
+     */
+    public int getLoadedChunks() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Checks if the chunk holding x y is in memory
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the chunk is loaded
+     */
+    public boolean isLoaded(int x, int y) {
+        return this.chunks.get(Location.pack(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT)) != null;
+    }
+
+    /**
+     * Gets the number of chunks loaded since the grid was created, generated or read from the swap directory
+     * @return chunk loads
+     */
+    public long getChunksLoaded() {
+        return chunksLoaded;
+    }
+
+    /**
+     * Gets the number of chunks unloaded since the grid was created
+     * @return chunk unloads
+     */
+    public long getChunksUnloaded() {
+        return chunksUnloaded;
+    }
+
+    public int getLoadRadius() {
+        return loadRadius;
+    }
+
+    /**
+     * Cells of a loaded chunk
+     */
+    private static final class Chunk {
+
+        private final PackedLevelGrid cells;
+        private boolean dirty;
+
+        private Chunk(PackedLevelGrid cells) {
+            this.cells = cells;
+        }
+    }
+}
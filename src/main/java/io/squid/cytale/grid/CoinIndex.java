@@ -0,0 +1,173 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.util.LongObjectMap;
+
+/**
+ * Keeps track of the coins of a grid
+ * Counts are updated incrementally by the grid each time a coin is placed or collected
+ * so completion checks never have to scan the layout
+ * The grid is split in square regions of REGION_SIZE tiles holding their own count
+ * Grids with more than MAX_DENSE_REGIONS regions (chunked worlds) only store the regions which ever held a coin
+ *
+ * @author TopeEstLa
+ */
+public class CoinIndex {
+
+    public static final int REGION_SHIFT = 5;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+    public static final int MAX_DENSE_REGIONS = 1 << 20;
+
+    private final int regionsX;
+    private final int regionsY;
+    private final int[] regionCoins;
+    private final LongObjectMap<int[]> sparseRegionCoins;
+
+    private int remaining;
+    private int collected;
+
+    /**
+     * Constructor for CoinIndex
+     * @param width  width of the indexed grid
+     * @param length length of the indexed grid
+     */
+    public CoinIndex(int width, int length) {
+        this.regionsX = (width + REGION_SIZE - 1) >> REGION_SHIFT;
+        this.regionsY = (length + REGION_SIZE - 1) >> REGION_SHIFT;
+        if ((long) this.regionsX * this.regionsY <= MAX_DENSE_REGIONS) {
+            this.regionCoins = new int[this.regionsX * this.regionsY];
+            this.sparseRegionCoins = null;
+        } else {
+            this.regionCoins = null;
+            this.sparseRegionCoins = new LongObjectMap<>();
+        }
+    }
+
+    /**
+     * Constructor for CoinIndex
+     * Copies the remaining coins of another index, the copy starts with no collected coin
+     * @param other index to copy
+     */
+    public CoinIndex(CoinIndex other) {
+        this.regionsX = other.regionsX;
+        this.regionsY = other.regionsY;
+        this.remaining = other.remaining;
+        if (other.regionCoins != null) {
+            this.regionCoins = other.regionCoins.clone();
+            this.sparseRegionCoins = null;
+        } else {
+            this.regionCoins = null;
+            this.sparseRegionCoins = new LongObjectMap<>();
+            other.sparseRegionCoins.forEach((key, count) -> this.sparseRegionCoins.put(key, count.clone()));
+        }
+    }
+
+    /**
+     * Called by the grid when a coin is placed at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    void coinAdded(int x, int y) {
+        this.remaining++;
+        if (this.regionCoins != null) {
+            this.regionCoins[regionIndex(x, y)]++;
+            return;
+        }
+
+        long key = Location.pack(x >> REGION_SHIFT, y >> REGION_SHIFT);
+        int[] count = this.sparseRegionCoins.get(key);
+        if (count == null) {
+            count = new int[1];
+            this.sparseRegionCoins.put(key, count);
+        }
+        count[0]++;
+    }
+
+    /**
+     * Called by the grid when a coin is removed from x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    void coinRemoved(int x, int y) {
+        this.remaining--;
+        this.collected++;
+        if (this.regionCoins != null) {
+            this.regionCoins[regionIndex(x, y)]--;
+        } else {
+            this.sparseRegionCoins.get(Location.pack(x >> REGION_SHIFT, y >> REGION_SHIFT))[0]--;
+        }
+    }
+
+    private int regionIndex(int x, int y) {
+        return (y >> REGION_SHIFT) * this.regionsX + (x >> REGION_SHIFT);
+    }
+
+    private int regionCount(int regionX, int regionY) {
+        if (this.regionCoins != null) {
+            return this.regionCoins[regionY * this.regionsX + regionX];
+        }
+
+        int[] count = this.sparseRegionCoins.get(Location.pack(regionX, regionY));
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Gets the number of coins left in the grid
+     * @return remaining coins
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Gets the number of coins removed from the grid since it was built
+     * @return collected coins
+     */
+    public int getCollected() {
+        return collected;
+    }
+
+    /**
+     * Gets the number of coins ever placed in the grid
+     * @return remaining + collected
+     */
+    public int getTotal() {
+        return remaining + collected;
+    }
+
+    /**
+     * Gets the number of regions along X
+     * @return regions along X
+     */
+    public int getRegionsX() {
+        return regionsX;
+    }
+
+    /**
+     * Gets the number of regions along Y
+     * @return regions along Y
+     */
+    public int getRegionsY() {
+        return regionsY;
+    }
+
+    /**
+     * Gets the number of coins left in a region
+     * @param regionX region X coordinate (x / REGION_SIZE)
+     * @param regionY region Y coordinate (y / REGION_SIZE)
+     * @return remaining coins in the region
+     */
+    public int getRemainingInRegion(int regionX, int regionY) {
+        return regionCount(regionX, regionY);
+    }
+
+    /**
+     * Gets the number of coins left in the region holding x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return remaining coins in the region
+     */
+    public int getRemainingAround(int x, int y) {
+        return regionCount(x >> REGION_SHIFT, y >> REGION_SHIFT);
+    }
+}
@@ -0,0 +1,252 @@
+package io.squid.cytale.grid;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Connected components of the cells a player can walk on, going around the world like Level.stepX and Level.stepY
+ * Every row is split in runs of walkable cells, the runs are found in parallel by rows
+ * then the runs overlapping in two consecutive rows, or touching both sides of a row, are merged with a union-find
+ * Memory is proportional to the number of runs, not cells
+ * The layout types must not change once analyzed, coins do not matter
+ *
+ * @author TopeEstLa
+ */
+public final class Connectivity {
+
+    private static final int ROWS_PER_TASK = 64;
+    private static final boolean[] WALKABLE = new boolean[256];
+
+    static {
+        for (int raw = 0; raw < WALKABLE.length; raw++) {
+            WALKABLE[raw] = (PackedLevelGrid.flagsOf((byte) raw) & LevelGrid.PLAYER_WALKABLE) != 0;
+        }
+    }
+
+    private final int width;
+    private final int length;
+    private final int[] rowRuns;
+    private final int[] runStarts;
+    private final int[] runEnds;
+    private final int[] runComponents;
+    private final int[] componentSizes;
+
+    private Connectivity(PackedLevelGrid grid, ForkJoinPool pool) {
+        this.width = grid.getWidth();
+        this.length = grid.getLength();
+
+        int[] counts = new int[this.length];
+        pool.invoke(new RunTask(grid, counts, null, null, 0, this.length));
+        this.rowRuns = new int[this.length + 1];
+        for (int y = 0; y < this.length; y++) {
+            this.rowRuns[y + 1] = this.rowRuns[y] + counts[y];
+        }
+        this.runStarts = new int[this.rowRuns[this.length]];
+        this.runEnds = new int[this.runStarts.length];
+        pool.invoke(new RunTask(grid, this.rowRuns, this.runStarts, this.runEnds, 0, this.length));
+
+        int[] parents = new int[this.runStarts.length];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (int y = 0; y < this.length; y++) {
+            int from = this.rowRuns[y];
+            int to = this.rowRuns[y + 1];
+            if (to - from > 1 && this.runStarts[from] == 0 && this.runEnds[to - 1] == this.width) {
+                union(parents, from, to - 1);
+            }
+            if (y > 0) {
+                this.unionRows(parents, y - 1, y);
+            }
+        }
+        if (this.length > 2) {
+            this.unionRows(parents, this.length - 1, 0);
+        }
+
+        this.runComponents = new int[parents.length];
+        int[] ids = new int[parents.length];
+        Arrays.fill(ids, -1);
+        int count = 0;
+        for (int run = 0; run < parents.length; run++) {
+            int root = find(parents, run);
+            if (ids[root] < 0) {
+                ids[root] = count++;
+            }
+            this.runComponents[run] = ids[root];
+        }
+
+        this.componentSizes = new int[count];
+        for (int run = 0; run < parents.length; run++) {
+            this.componentSizes[this.runComponents[run]] += this.runEnds[run] - this.runStarts[run];
+        }
+    }
+
+    /**
+     * Analyzes a grid on the common pool
+     *
+     * @param grid layout to analyze
+     * @return components of the layout
+     */
+    public static Connectivity analyze(PackedLevelGrid grid) {
+        return analyze(grid, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Analyzes a grid
+     *
+     * @param grid layout to analyze
+     * @param pool pool finding the runs of the rows
+     * @return components of the layout
+     */
+    public static Connectivity analyze(PackedLevelGrid grid, ForkJoinPool pool) {
+        return new Connectivity(grid, pool);
+    }
+
+    /**
+     * Merges the overlapping runs of two rows, both lists are sorted by x
+     */
+    private void unionRows(int[] parents, int above, int below) {
+        int i = this.rowRuns[above];
+        int j = this.rowRuns[below];
+        while (i < this.rowRuns[above + 1] && j < this.rowRuns[below + 1]) {
+            if (this.runStarts[i] < this.runEnds[j] && this.runStarts[j] < this.runEnds[i]) {
+                union(parents, i, j);
+            }
+
+            if (this.runEnds[i] < this.runEnds[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+    }
+
+    private static int find(int[] parents, int run) {
+        while (parents[run] != run) {
+            parents[run] = parents[parents[run]];
+            run = parents[run];
+        }
+        return run;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * Gets the component of a cell
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return component id, from 0 to getComponentCount - 1, -1 if the cell is not walkable
+     */
+    public int getComponent(int x, int y) {
+        int low = this.rowRuns[y];
+        int high = this.rowRuns[y + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (this.runEnds[middle] <= x) {
+                low = middle + 1;
+            } else if (this.runStarts[middle] > x) {
+                high = middle - 1;
+            } else {
+                return this.runComponents[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if two cells are connected
+     *
+     * @return true if both cells are walkable and in the same component
+     */
+    public boolean isConnected(int x, int y, int otherX, int otherY) {
+        int component = this.getComponent(x, y);
+        return component >= 0 && component == this.getComponent(otherX, otherY);
+    }
+
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Gets the number of cells of a component
+     *
+     * @param component component id
+     * @return walkable cells in the component
+     */
+    public int getComponentSize(int component) {
+        return componentSizes[component];
+    }
+
+    public int getRunCount() {
+        return runStarts.length;
+    }
+
+    /**
+     * Finds the runs of a range of rows, split in two until ROWS_PER_TASK rows are left
+     * Counts the runs of every row when starts is null, fills them at the offsets of rows otherwise
+     */
+    private static final class RunTask extends RecursiveAction {
+
+        private final PackedLevelGrid grid;
+        private final int[] rows;
+        private final int[] starts;
+        private final int[] ends;
+        private final int from;
+        private final int to;
+
+        private RunTask(PackedLevelGrid grid, int[] rows, int[] starts, int[] ends, int from, int to) {
+            this.grid = grid;
+            this.rows = rows;
+            this.starts = starts;
+            this.ends = ends;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > ROWS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RunTask(this.grid, this.rows, this.starts, this.ends, this.from, middle),
+                        new RunTask(this.grid, this.rows, this.starts, this.ends, middle, this.to));
+                return;
+            }
+
+            int width = this.grid.getWidth();
+            for (int y = this.from; y < this.to; y++) {
+                int index = this.grid.index(0, y);
+                int run = this.starts == null ? 0 : this.rows[y];
+                int x = 0;
+                while (x < width) {
+                    while (x < width && !WALKABLE[this.grid.getRaw(index + x) & 0xFF]) {
+                        x++;
+                    }
+                    if (x == width) {
+                        break;
+                    }
+
+                    int start = x;
+                    while (x < width && WALKABLE[this.grid.getRaw(index + x) & 0xFF]) {
+                        x++;
+                    }
+                    if (this.starts != null) {
+                        this.starts[run] = start;
+                        this.ends[run] = x;
+                    }
+                    run++;
+                }
+                if (this.starts == null) {
+                    this.rows[y] = run;
+                }
+            }
+        }
+    }
+}
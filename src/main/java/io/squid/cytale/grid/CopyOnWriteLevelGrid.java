@@ -0,0 +1,220 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.enums.CellType;
+
+/**
+ * LevelGrid sharing the cells of a read only base grid
+ * Cells are split in pages of PAGE_SIZE cells, a page is copied the first time one of its cells is written
+ * Many levels can be built from the same base for the cost of the pages they actually modify
+ * The base grid must not be modified while copies exist
+ * Pages written since the last call to takeDirtyPages are tracked, see GameSnapshot
+ *
+ * @author TopeEstLa
+ */
+public class CopyOnWriteLevelGrid implements LevelGrid {
+
+    public static final int PAGE_SHIFT = 12;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private static final CellType[] TYPES = CellType.values();
+
+    private final PackedLevelGrid base;
+    private final byte[][] pages;
+    private final long[] dirty;
+    private final CoinIndex coinIndex;
+
+    /**
+     * Constructor for CopyOnWriteLevelGrid
+     * @param base read only grid holding the initial cells
+     */
+    public CopyOnWriteLevelGrid(PackedLevelGrid base) {
+        this.base = base;
+        int cells = base.getWidth() * base.getLength();
+        this.pages = new byte[(cells + PAGE_SIZE - 1) >> PAGE_SHIFT][];
+        this.dirty = new long[(this.pages.length + 63) >> 6];
+        this.coinIndex = new CoinIndex(base.getCoinIndex());
+    }
+
+    private byte raw(int index) {
+        byte[] page = this.pages[index >> PAGE_SHIFT];
+        return page == null ? this.base.getRaw(index) : page[index & (PAGE_SIZE - 1)];
+    }
+
+    private void write(int index, byte value) {
+        int pageIndex = index >> PAGE_SHIFT;
+        byte[] page = this.pages[pageIndex];
+        if (page == null) {
+            page = new byte[PAGE_SIZE];
+            int start = pageIndex << PAGE_SHIFT;
+            int end = Math.min(start + PAGE_SIZE, this.base.getWidth() * this.base.getLength());
+            for (int i = start; i < end; i++) {
+                page[i - start] = this.base.getRaw(i);
+            }
+            this.pages[pageIndex] = page;
+        }
+        page[index & (PAGE_SIZE - 1)] = value;
+        this.dirty[pageIndex >> 6] |= 1L << pageIndex;
+    }
+
+    /**
+     * Gets the packed value of a cell, see PackedLevelGrid
+     * @param index cell index, y * width + x
+     * @return packed cell
+     */
+    public byte getRaw(int index) {
+        return raw(index);
+    }
+
+    /**
+     * Sets the packed value of a cell, keeping the coin index up to date
+     * @param index cell index, y * width + x
+     * @param value packed cell
+     */
+    public void setRaw(int index, byte value) {
+        byte old = raw(index);
+        if (old == value) {
+            return;
+        }
+
+        write(index, value);
+        int width = this.base.getWidth();
+        if ((old & PackedLevelGrid.COIN_BIT) != (value & PackedLevelGrid.COIN_BIT)) {
+            if ((value & PackedLevelGrid.COIN_BIT) != 0) {
+                this.coinIndex.coinAdded(index % width, index / width);
+            } else {
+                this.coinIndex.coinRemoved(index % width, index / width);
+            }
+        }
+    }
+
+    /**
+     * Gets the pages written since the previous call and forgets them
+     * @return indexes of the dirty pages, in increasing order
+     */
+    public int[] takeDirtyPages() {
+        int count = 0;
+        for (long word : this.dirty) {
+            count += Long.bitCount(word);
+        }
+
+        int[] taken = new int[count];
+        int next = 0;
+        for (int i = 0; i < this.dirty.length; i++) {
+            long word = this.dirty[i];
+            while (word != 0) {
+                taken[next++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            this.dirty[i] = 0;
+        }
+        return taken;
+    }
+
+    /**
+     * Copies the cells of a page
+     * @param page page index
+     * @return copy of the page, the last page of the grid may hold less than PAGE_SIZE cells
+     */
+    public byte[] copyPage(int page) {
+        int start = page << PAGE_SHIFT;
+        int end = Math.min(start + PAGE_SIZE, this.base.getWidth() * this.base.getLength());
+        byte[] copy = new byte[end - start];
+        byte[] cells = this.pages[page];
+        if (cells != null) {
+            System.arraycopy(cells, 0, copy, 0, copy.length);
+        } else {
+            for (int i = start; i < end; i++) {
+                copy[i - start] = this.base.getRaw(i);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Checks if a page was copied from the base grid
+     * @param page page index
+     * @return true if a cell of the page was written
+     */
+    public boolean isPageCopied(int page) {
+        return this.pages[page] != null;
+    }
+
+    /**
+     * Gets the read only grid holding the initial cells
+     * @return base grid
+     */
+    public PackedLevelGrid getBase() {
+        return base;
+    }
+
+    public int getPageCount() {
+        return this.pages.length;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.base.getWidth();
+    }
+
+    @Override
+    public int getLength() {
+        return this.base.getLength();
+    }
+
+    @Override
+    public CellType getType(int x, int y) {
+        return TYPES[raw(this.base.index(x, y)) & PackedLevelGrid.TYPE_MASK];
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return PackedLevelGrid.flagsOf(raw(this.base.index(x, y)));
+    }
+
+    @Override
+    public void setType(int x, int y, CellType type) {
+        int index = this.base.index(x, y);
+        write(index, (byte) ((raw(index) & ~PackedLevelGrid.TYPE_MASK) | type.ordinal()));
+    }
+
+    @Override
+    public boolean hasCoin(int x, int y) {
+        return (raw(this.base.index(x, y)) & PackedLevelGrid.COIN_BIT) != 0;
+    }
+
+    @Override
+    public void setCoin(int x, int y, boolean coin) {
+        int index = this.base.index(x, y);
+        byte value = raw(index);
+        if (((value & PackedLevelGrid.COIN_BIT) != 0) == coin) {
+            return;
+        }
+
+        if (coin) {
+            write(index, (byte) (value | PackedLevelGrid.COIN_BIT));
+            this.coinIndex.coinAdded(x, y);
+        } else {
+            write(index, (byte) (value & ~PackedLevelGrid.COIN_BIT));
+            this.coinIndex.coinRemoved(x, y);
+        }
+    }
+
+    @Override
+    public CoinIndex getCoinIndex() {
+        return coinIndex;
+    }
+
+    /**
+     * Gets the number of pages copied from the base grid
+     * @return copied pages
+     */
+    public int getCopiedPages() {
+        int copied = 0;
+        for (byte[] page : this.pages) {
+            if (page != null) {
+                copied++;
+            }
+        }
+        return copied;
+    }
+}
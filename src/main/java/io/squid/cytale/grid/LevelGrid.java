@@ -0,0 +1,145 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.enums.CellType;
+
+/**
+ * Storage backend for the tiles of a level
+ * X = right to left
+ * Y = top to bottom
+ * 0 0 is top left corner
+ * Implementations must not allocate on reads
+ *
+ * @author TopeEstLa
+ */
+public interface LevelGrid {
+
+    /**
+     * Flags of getFlags, the player can walk on the cell
+     */
+    int PLAYER_WALKABLE = 1;
+    /**
+     * Flags of getFlags, a monster can walk on the cell (walkable and not a trap)
+     */
+    int MONSTER_WALKABLE = 1 << 1;
+    /**
+     * Flags of getFlags, the cell is a trap
+     */
+    int TRAP = 1 << 2;
+    /**
+     * Flags of getFlags, the cell has a coin
+     */
+    int COIN = 1 << 3;
+
+    /**
+     * Gets the width of the grid (number of columns)
+     * @return width
+     */
+    int getWidth();
+
+    /**
+     * Gets the length of the grid (number of rows)
+     * @return length
+     */
+    int getLength();
+
+    /**
+     * Gets the type of the cell at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return CellType of the cell
+     */
+    CellType getType(int x, int y);
+
+    /**
+     * Sets the type of the cell at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param type New cell type
+     */
+    void setType(int x, int y, CellType type);
+
+    /**
+     * Checks if the cell at x y has a coin
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if there is a coin, false otherwise
+     */
+    boolean hasCoin(int x, int y);
+
+    /**
+     * Sets the coin status of the cell at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param coin New coin status
+     */
+    void setCoin(int x, int y, boolean coin);
+
+    /**
+     * Gets the coin bookkeeping of the grid
+     * kept up to date by setCoin
+     * @return CoinIndex of the grid
+     */
+    CoinIndex getCoinIndex();
+
+    /**
+     * Gets the movement flags of the cell at x y in a single read
+     * PLAYER_WALKABLE, MONSTER_WALKABLE, TRAP and COIN
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return flags of the cell
+     */
+    default int getFlags(int x, int y) {
+        return flagsOf(getType(x, y), hasCoin(x, y));
+    }
+
+    /**
+     * Computes the movement flags of a cell
+     * @param type type of the cell
+     * @param coin true if the cell has a coin
+     * @return flags of the cell, see getFlags
+     */
+    static int flagsOf(CellType type, boolean coin) {
+        int flags = coin ? COIN : 0;
+        if (type.isWalkable()) {
+            flags |= PLAYER_WALKABLE;
+        }
+        if (type == CellType.TRAP) {
+            flags |= TRAP;
+        } else if (type.isWalkable()) {
+            flags |= MONSTER_WALKABLE;
+        }
+        return flags;
+    }
+
+    /**
+     * Gets the symbol representing the cell at x y
+     * 'C' if the cell has a coin, the cell type symbol otherwise
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return Character symbol
+     */
+    default char getSymbol(int x, int y) {
+        return hasCoin(x, y) ? 'C' : getType(x, y).getSymbol();
+    }
+
+    /**
+     * Tells the grid where the player stands
+     * Called by the level before every tick, grids loading their cells lazily use it to load and unload areas
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     */
+    default void focus(int x, int y) {
+    }
+
+    /**
+     * Checks if the entities at x y should be ticked
+     * Always true unless the grid only keeps the area around the player loaded
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the cell is in the active area
+     */
+    default boolean isActive(int x, int y) {
+        return true;
+    }
+
+}
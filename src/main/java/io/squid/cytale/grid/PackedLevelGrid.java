@@ -0,0 +1,193 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.enums.CellType;
+
+import java.util.Arrays;
+
+/**
+ * LevelGrid storing every tile in a single byte
+ * bits 0-3 : CellType ordinal
+ * bit 4    : coin flag
+ * Tiles are stored row by row, index = y * width + x
+ * The movement flags of every possible packed value are precomputed, see flagsOf
+ *
+ * @author TopeEstLa
+ */
+public class PackedLevelGrid implements LevelGrid {
+
+    public static final int TYPE_MASK = 0x0F;
+    public static final int COIN_BIT = 0x10;
+
+    private static final CellType[] TYPES = CellType.values();
+    private static final byte[] FLAGS = new byte[256];
+
+    static {
+        for (int raw = 0; raw < FLAGS.length; raw++) {
+            int type = raw & TYPE_MASK;
+            if (type < TYPES.length) {
+                FLAGS[raw] = (byte) LevelGrid.flagsOf(TYPES[type], (raw & COIN_BIT) != 0);
+            }
+        }
+    }
+
+    private final int width;
+    private final int length;
+    private final byte[] cells;
+    private final CoinIndex coinIndex;
+
+    /**
+     * Constructor for PackedLevelGrid
+     * Every cell is initialized as a FLOOR without coin
+     * @param width  width of the grid
+     * @param length length of the grid
+     */
+    public PackedLevelGrid(int width, int length) {
+        if (width <= 0 || length <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive");
+        }
+
+        if ((long) width * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid is too large: " + width + "x" + length);
+        }
+
+        this.width = width;
+        this.length = length;
+        this.cells = new byte[width * length];
+        this.coinIndex = new CoinIndex(width, length);
+        Arrays.fill(this.cells, (byte) CellType.FLOOR.ordinal());
+    }
+
+    /**
+     * Constructor for PackedLevelGrid
+     * Wraps already packed cells, the array is not copied
+     * The coin index is built by scanning the cells once
+     * @param width  width of the grid
+     * @param length length of the grid
+     * @param cells  packed cells, row by row
+     */
+    public PackedLevelGrid(int width, int length, byte[] cells) {
+        if (width <= 0 || length <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive");
+        }
+
+        if ((long) width * length != cells.length) {
+            throw new IllegalArgumentException("Expected " + ((long) width * length) + " cells, got " + cells.length);
+        }
+
+        this.width = width;
+        this.length = length;
+        this.cells = cells;
+        this.coinIndex = new CoinIndex(width, length);
+        for (int i = 0; i < cells.length; i++) {
+            if ((cells[i] & COIN_BIT) != 0) {
+                this.coinIndex.coinAdded(i % width, i / width);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the cell at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return index in the packed array
+     */
+    public int index(int x, int y) {
+        return y * this.width + x;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the packed value of the cell at the given index
+     * @param index index in the packed array
+     * @return packed cell, type and coin bits
+     */
+    public byte getRaw(int index) {
+        return this.cells[index];
+    }
+
+    /**
+     * Gets the packed cells, not copied
+     * @return packed cells, row by row
+     */
+    byte[] getCells() {
+        return this.cells;
+    }
+
+    @Override
+    public CellType getType(int x, int y) {
+        return getType(index(x, y));
+    }
+
+    /**
+     * Gets the type of the cell at the given index
+     * @param index index in the packed array
+     * @return CellType of the cell
+     */
+    public CellType getType(int index) {
+        return TYPES[this.cells[index] & TYPE_MASK];
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return FLAGS[this.cells[index(x, y)] & 0xFF];
+    }
+
+    /**
+     * Gets the movement flags of a packed cell
+     * @param raw packed cell, type and coin bits
+     * @return flags of the cell, see LevelGrid.getFlags
+     */
+    public static int flagsOf(byte raw) {
+        return FLAGS[raw & 0xFF];
+    }
+
+    @Override
+    public void setType(int x, int y, CellType type) {
+        int index = index(x, y);
+        this.cells[index] = (byte) ((this.cells[index] & ~TYPE_MASK) | type.ordinal());
+    }
+
+    @Override
+    public boolean hasCoin(int x, int y) {
+        return hasCoin(index(x, y));
+    }
+
+    /**
+     * Checks if the cell at the given index has a coin
+     * @param index index in the packed array
+     * @return true if there is a coin, false otherwise
+     */
+    public boolean hasCoin(int index) {
+        return (this.cells[index] & COIN_BIT) != 0;
+    }
+
+    @Override
+    public void setCoin(int x, int y, boolean coin) {
+        int index = index(x, y);
+        if (hasCoin(index) == coin) {
+            return;
+        }
+
+        if (coin) {
+            this.cells[index] |= COIN_BIT;
+            this.coinIndex.coinAdded(x, y);
+        } else {
+            this.cells[index] &= ~COIN_BIT;
+            this.coinIndex.coinRemoved(x, y);
+        }
+    }
+
+    @Override
+    public CoinIndex getCoinIndex() {
+        return coinIndex;
+    }
+}
@@ -0,0 +1,259 @@
+package io.squid.cytale.grid;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Location;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Chunked hash grid of entities
+ * The world is split in square buckets of (1 << bucketShift) tiles,
+ * buckets are stored in an open addressing table keyed by the packed bucket coordinates
+ * Only buckets holding (or having held) entities exist, so the index does not depend on the level size
+ * The index must be told when an entity moves, see move
+ *
+ * @author TopeEstLa
+ */
+public class SpatialIndex {
+
+    public static final int DEFAULT_BUCKET_SHIFT = 4;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int bucketShift;
+
+    private long[] keys;
+    private Bucket[] buckets;
+    private int bucketCount;
+    private int size;
+
+    /**
+     * Constructor for SpatialIndex
+     * Buckets of 16x16 tiles
+     */
+    public SpatialIndex() {
+        this(DEFAULT_BUCKET_SHIFT);
+    }
+
+    /**
+     * Constructor for SpatialIndex
+     * @param bucketShift buckets are (1 << bucketShift) tiles wide
+     */
+    public SpatialIndex(int bucketShift) {
+        if (bucketShift < 0 || bucketShift > 16) {
+            throw new IllegalArgumentException("Bucket shift must be between 0 and 16");
+        }
+
+        this.bucketShift = bucketShift;
+        this.keys = new long[64];
+        this.buckets = new Bucket[64];
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Adds an entity at its current location
+     * @param entity Entity to add
+     */
+    public void add(Entity entity) {
+        Location location = entity.getLocation();
+        bucketFor(location.getX(), location.getY(), true).add(entity);
+        this.size++;
+    }
+
+    /**
+     * Removes an entity which was indexed at x y
+     * @param entity Entity to remove
+     * @param x X coordinate the entity was indexed at
+     * @param y Y coordinate the entity was indexed at
+     * @return true if the entity was found
+     */
+    public boolean remove(Entity entity, int x, int y) {
+        Bucket bucket = bucketFor(x, y, false);
+        if (bucket != null && bucket.remove(entity)) {
+            this.size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the index after an entity moved from oldX oldY to its current location
+     * Constant time, nothing happens when the entity stays in the same bucket
+     * @param entity Entity which moved
+     * @param oldX previous X coordinate
+     * @param oldY previous Y coordinate
+     */
+    public void move(Entity entity, int oldX, int oldY) {
+        Location location = entity.getLocation();
+        int newX = location.getX();
+        int newY = location.getY();
+        if ((oldX >> bucketShift) == (newX >> bucketShift) && (oldY >> bucketShift) == (newY >> bucketShift)) {
+            return;
+        }
+
+        Bucket from = bucketFor(oldX, oldY, false);
+        if (from == null || !from.remove(entity)) {
+            throw new IllegalStateException("Entity was not indexed at " + oldX + " " + oldY);
+        }
+        bucketFor(newX, newY, true).add(entity);
+    }
+
+    /**
+     * Checks if at least one entity stands at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if an entity is at x y
+     */
+    public boolean hasEntityAt(int x, int y) {
+        return getFirstAt(x, y) != null;
+    }
+
+    /**
+     * Gets the first indexed entity standing at x y
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return the entity, null if there is none
+     */
+    public Entity getFirstAt(int x, int y) {
+        Bucket bucket = bucketFor(x, y, false);
+        if (bucket == null) {
+            return null;
+        }
+
+        for (int i = 0; i < bucket.size; i++) {
+            Location location = bucket.entities[i].getLocation();
+            if (location.getX() == x && location.getY() == y) {
+                return bucket.entities[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds every entity standing at x y to the given list
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param out list receiving the entities
+     */
+    public void collectAt(int x, int y, List<Entity> out) {
+        forEachAt(x, y, out::add);
+    }
+
+    /**
+     * Runs the action for every entity standing at x y
+     * The index must not be modified by the action
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param action action to run
+     */
+    public void forEachAt(int x, int y, Consumer<Entity> action) {
+        Bucket bucket = bucketFor(x, y, false);
+        if (bucket == null) {
+            return;
+        }
+
+        for (int i = 0; i < bucket.size; i++) {
+            Entity entity = bucket.entities[i];
+            Location location = entity.getLocation();
+            if (location.getX() == x && location.getY() == y) {
+                action.accept(entity);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of indexed entities
+     * @return number of entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the bucket width in tiles
+     * @return bucket width
+     */
+    public int getBucketSize() {
+        return 1 << bucketShift;
+    }
+
+    private Bucket bucketFor(int x, int y, boolean create) {
+        long key = ((long) (x >> bucketShift) << 32) | ((y >> bucketShift) & 0xFFFFFFFFL);
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return this.buckets[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (!create) {
+            return null;
+        }
+
+        Bucket bucket = new Bucket();
+        this.keys[slot] = key;
+        this.buckets[slot] = bucket;
+        if (++this.bucketCount * 2 > this.keys.length) {
+            grow();
+        }
+        return bucket;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        Bucket[] oldBuckets = this.buckets;
+        this.keys = new long[oldKeys.length * 2];
+        this.buckets = new Bucket[oldBuckets.length * 2];
+        Arrays.fill(this.keys, EMPTY);
+
+        int mask = this.keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (this.keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = oldKeys[i];
+            this.buckets[slot] = oldBuckets[i];
+        }
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    /**
+     * Unordered array of entities
+     */
+    private static final class Bucket {
+
+        private Entity[] entities = new Entity[4];
+        private int size;
+
+        private void add(Entity entity) {
+            if (this.size == this.entities.length) {
+                this.entities = Arrays.copyOf(this.entities, this.size * 2);
+            }
+            this.entities[this.size++] = entity;
+        }
+
+        private boolean remove(Entity entity) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.entities[i] == entity) {
+                    this.entities[i] = this.entities[--this.size];
+                    this.entities[this.size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes levels in the text format read by LevelParser
+ * A cell holding a monster is written 'R' and the spawn '1', even if the cell also holds a coin
+ *
+ * @author TopeEstLa
+ */
+public final class AsciiLevelFormat {
+
+    private AsciiLevelFormat() {
+    }
+
+    /**
+     * Writes a level in the text format, rows separated by "\n"
+     *
+     * @param template level to write
+     * @param file     destination file
+     * @throws IOException if the file can not be written
+     */
+    public static void write(LevelTemplate template, Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            write(template, out);
+        }
+    }
+
+    /**
+     * Writes a level in the text format, rows separated by "\n"
+     *
+     * @param template level to write
+     * @param out      destination stream, not closed
+     * @throws IOException if the stream can not be written
+     */
+    public static void write(LevelTemplate template, OutputStream out) throws IOException {
+        PackedLevelGrid layout = template.getLayout();
+        int width = layout.getWidth();
+        byte[] row = new byte[width + 1];
+        row[width] = '\n';
+
+        long[] monsters = new long[template.getMonsterCount()];
+        for (int i = 0; i < monsters.length; i++) {
+            long spawn = template.getMonsterSpawn(i);
+            monsters[i] = (long) Location.unpackY(spawn) * width + Location.unpackX(spawn);
+        }
+        Arrays.sort(monsters);
+        int nextMonster = 0;
+
+        for (int y = 0; y < layout.getLength(); y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = (byte) (layout.hasCoin(x, y) ? '.' : layout.getType(x, y).getSymbol());
+            }
+
+            long rowEnd = (long) (y + 1) * width;
+            while (nextMonster < monsters.length && monsters[nextMonster] < rowEnd) {
+                row[(int) (monsters[nextMonster++] % width)] = 'R';
+            }
+
+            if (template.getSpawnY() == y) {
+                row[template.getSpawnX()] = '1';
+            }
+            out.write(row);
+        }
+    }
+}
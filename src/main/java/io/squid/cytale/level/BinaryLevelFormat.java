@@ -0,0 +1,275 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Compact binary level format, extension .cytl
+ * All numbers are big endian
+ *
+ * header        : magic "CYTL", version (byte), flags (byte),
+ *                 width (int), length (int), spawnX (int), spawnY (int)
+ * type plane    : cells row by row, encoded as selected by the flags
+ *                 FLAG_PACKED unset : run count (int) then for each run, cell type ordinal (byte) and run length (varint)
+ *                 FLAG_PACKED set   : TYPE_BITS bits per cell, least significant bits first
+ * coin bitmap   : (width * length + 7) / 8 bytes, bit (index % 8) of byte (index / 8) set when the cell has a coin
+ * entity table  : entity count (int) then for each entity, kind (byte, 0 = monster)
+ *                 and the difference between its cell index (y * width + x) and the previous one (zigzag varint)
+ *
+ * The writer keeps whichever type plane encoding is smaller
+ * A file is loaded with a single bulk read then decoded in memory
+ *
+ * @author TopeEstLa
+ */
+public final class BinaryLevelFormat {
+
+    public static final String EXTENSION = ".cytl";
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'C', 'Y', 'T', 'L'};
+    private static final int HEADER_SIZE = 22;
+    private static final int FLAG_PACKED = 1;
+    private static final byte MONSTER = 0;
+    private static final CellType[] TYPES = CellType.values();
+    private static final int TYPE_BITS = 32 - Integer.numberOfLeadingZeros(TYPES.length - 1);
+
+    private BinaryLevelFormat() {
+    }
+
+    /**
+     * Checks if a file uses the binary format, based on its extension
+     *
+     * @param file Path to the level file
+     * @return true if the file name ends with .cytl
+     */
+    public static boolean isBinary(Path file) {
+        Path name = file.getFileName();
+        return name != null && name.toString().endsWith(EXTENSION);
+    }
+
+    /**
+     * Reads a binary level file
+     * Throw IllegalArgumentException if the file can not be read or is malformed
+     *
+     * @param file Path to the level file
+     * @return parsed template
+     */
+    public static LevelTemplate read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading file: " + e.getMessage());
+        }
+
+        try {
+            return decode(ByteBuffer.wrap(bytes));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated level file: " + file);
+        }
+    }
+
+    private static LevelTemplate decode(ByteBuffer buffer) {
+        for (byte magic : MAGIC) {
+            if (buffer.get() != magic) {
+                throw new IllegalArgumentException("Not a CyTale binary level");
+            }
+        }
+
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported level version: " + version);
+        }
+        int flags = buffer.get();
+
+        int width = buffer.getInt();
+        int length = buffer.getInt();
+        int spawnX = buffer.getInt();
+        int spawnY = buffer.getInt();
+        if (width <= 0 || length <= 0 || (long) width * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid level size: " + width + "x" + length);
+        }
+
+        byte[] cells = new byte[width * length];
+        if ((flags & FLAG_PACKED) != 0) {
+            readPackedPlane(buffer, cells);
+        } else {
+            readRunPlane(buffer, cells);
+        }
+
+        for (int i = 0; i < cells.length; i += 8) {
+            int coins = buffer.get() & 0xFF;
+            if (coins >>> Math.min(cells.length - i, 8) != 0) {
+                throw new IllegalArgumentException("Coin bitmap sets cells past the end of the level");
+            }
+            for (int bit = 0; coins != 0 && bit < 8; bit++, coins >>>= 1) {
+                if ((coins & 1) != 0) {
+                    cells[i + bit] |= PackedLevelGrid.COIN_BIT;
+                }
+            }
+        }
+
+        int entities = buffer.getInt();
+        // every entity takes at least a kind byte and a varint byte
+        if (entities < 0 || entities > buffer.remaining() / 2) {
+            throw new IllegalArgumentException("Invalid entity count: " + entities);
+        }
+        long[] monsters = new long[entities];
+        long cell = 0;
+        for (int i = 0; i < entities; i++) {
+            byte kind = buffer.get();
+            if (kind != MONSTER) {
+                throw new IllegalArgumentException("Unknown entity kind: " + kind);
+            }
+
+            long delta = readVarLong(buffer);
+            cell += (delta >>> 1) ^ -(delta & 1);
+            if (cell < 0 || cell >= cells.length) {
+                throw new IllegalArgumentException("Entity out of bounds: " + cell);
+            }
+            monsters[i] = Location.pack((int) (cell % width), (int) (cell / width));
+        }
+
+        return new LevelTemplate(new PackedLevelGrid(width, length, cells), spawnX, spawnY, monsters);
+    }
+
+    private static void readRunPlane(ByteBuffer buffer, byte[] cells) {
+        int runs = buffer.getInt();
+        int index = 0;
+        for (int i = 0; i < runs; i++) {
+            int type = buffer.get();
+            int run = (int) readVarLong(buffer);
+            if (type < 0 || type >= TYPES.length || run < 0 || run > cells.length - index) {
+                throw new IllegalArgumentException("Corrupted type plane at cell " + index);
+            }
+            if (type != 0) {
+                Arrays.fill(cells, index, index + run, (byte) type);
+            }
+            index += run;
+        }
+        if (index != cells.length) {
+            throw new IllegalArgumentException("Type plane covers " + index + " cells, expected " + cells.length);
+        }
+    }
+
+    private static void readPackedPlane(ByteBuffer buffer, byte[] cells) {
+        int mask = (1 << TYPE_BITS) - 1;
+        int bits = 0;
+        int available = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (available < TYPE_BITS) {
+                bits |= (buffer.get() & 0xFF) << available;
+                available += 8;
+            }
+
+            int type = bits & mask;
+            if (type >= TYPES.length) {
+                throw new IllegalArgumentException("Corrupted type plane at cell " + i);
+            }
+            cells[i] = (byte) type;
+            bits >>>= TYPE_BITS;
+            available -= TYPE_BITS;
+        }
+    }
+
+    /**
+     * Writes a level in the binary format
+     *
+     * @param template level to write
+     * @param file     destination file
+     * @throws IOException if the file can not be written
+     */
+    public static void write(LevelTemplate template, Path file) throws IOException {
+        PackedLevelGrid layout = template.getLayout();
+        int cells = layout.getWidth() * layout.getLength();
+
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        int runCount = 0;
+        int start = 0;
+        while (start < cells) {
+            int type = layout.getRaw(start) & PackedLevelGrid.TYPE_MASK;
+            int end = start + 1;
+            while (end < cells && (layout.getRaw(end) & PackedLevelGrid.TYPE_MASK) == type) {
+                end++;
+            }
+            runs.write(type);
+            writeVarLong(runs, end - start);
+            runCount++;
+            start = end;
+        }
+
+        byte[] packed = new byte[(int) (((long) cells * TYPE_BITS + 7) / 8)];
+        long bit = 0;
+        for (int i = 0; i < cells; i++, bit += TYPE_BITS) {
+            int type = layout.getRaw(i) & PackedLevelGrid.TYPE_MASK;
+            packed[(int) (bit >>> 3)] |= (byte) (type << (bit & 7));
+            if ((bit & 7) + TYPE_BITS > 8) {
+                packed[(int) (bit >>> 3) + 1] |= (byte) (type >>> (8 - (bit & 7)));
+            }
+        }
+        boolean usePacked = packed.length < 4 + runs.size();
+
+        byte[] coins = new byte[(cells + 7) / 8];
+        for (int i = 0; i < cells; i++) {
+            if ((layout.getRaw(i) & PackedLevelGrid.COIN_BIT) != 0) {
+                coins[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+
+        ByteArrayOutputStream entities = new ByteArrayOutputStream();
+        long previous = 0;
+        for (int i = 0; i < template.getMonsterCount(); i++) {
+            long spawn = template.getMonsterSpawn(i);
+            long cell = (long) Location.unpackY(spawn) * layout.getWidth() + Location.unpackX(spawn);
+            long delta = cell - previous;
+            entities.write(MONSTER);
+            writeVarLong(entities, (delta << 1) ^ (delta >> 63));
+            previous = cell;
+        }
+
+        int planeSize = usePacked ? packed.length : 4 + runs.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + planeSize + coins.length + 4 + entities.size());
+        buffer.put(MAGIC).put((byte) VERSION).put((byte) (usePacked ? FLAG_PACKED : 0));
+        buffer.putInt(layout.getWidth()).putInt(layout.getLength());
+        buffer.putInt(template.getSpawnX()).putInt(template.getSpawnY());
+        if (usePacked) {
+            buffer.put(packed);
+        } else {
+            buffer.putInt(runCount).put(runs.toByteArray());
+        }
+        buffer.put(coins);
+        buffer.putInt(template.getMonsterCount());
+        buffer.put(entities.toByteArray());
+
+        Files.write(file, buffer.array());
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int read = buffer.get();
+            value |= (long) (read & 0x7F) << shift;
+            if (read >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
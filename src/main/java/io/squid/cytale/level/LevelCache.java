@@ -0,0 +1,123 @@
+package io.squid.cytale.level;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache of parsed levels
+ * Templates are kept until the file is modified (last modified time) or evicted by newer levels (LRU)
+ * Levels can be preloaded on a background thread, a get waits for a running preload instead of parsing twice
+ *
+ * @author TopeEstLa
+ */
+public class LevelCache {
+
+    private final int maxEntries;
+    private final Map<Path, Entry> entries;
+    private final ExecutorService preloader;
+
+    /**
+     * Constructor for LevelCache
+     *
+     * @param maxEntries maximum number of templates kept in memory
+     */
+    public LevelCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+                return size() > LevelCache.this.maxEntries;
+            }
+        };
+        this.preloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cytale-level-preloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the template of a level file, parsing it if it is not cached or was modified
+     *
+     * @param file Path to the level file
+     * @return parsed template
+     */
+    public LevelTemplate get(Path file) {
+        try {
+            return this.load(file).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a level file on the background thread if it is not cached yet
+     * Errors are reported by the next get of the file
+     *
+     * @param file Path to the level file
+     * @return future completed once the template is parsed
+     */
+    public CompletableFuture<LevelTemplate> preload(Path file) {
+        return CompletableFuture.supplyAsync(() -> this.load(file), this.preloader).thenCompose(future -> future);
+    }
+
+    /**
+     * Removes every cached template
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    private CompletableFuture<LevelTemplate> load(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        FileTime modified = lastModified(key);
+
+        CompletableFuture<LevelTemplate> future;
+        synchronized (this) {
+            Entry entry = this.entries.get(key);
+            if (entry != null && entry.modified.equals(modified) && !entry.template.isCompletedExceptionally()) {
+                return entry.template;
+            }
+
+            future = new CompletableFuture<>();
+            this.entries.put(key, new Entry(modified, future));
+        }
+
+        try {
+            future.complete(LevelTemplate.load(key));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading file: " + e.getMessage());
+        }
+    }
+
+    private record Entry(FileTime modified, CompletableFuture<LevelTemplate> template) {
+    }
+}
@@ -0,0 +1,42 @@
+package io.squid.cytale.level;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Converts levels between the text format and the binary format
+ * usage : LevelConverter <input> <output>
+ * the format of each file is chosen from its extension, .cytl for binary, text otherwise
+ *
+ * @author TopeEstLa
+ */
+public final class LevelConverter {
+
+    private LevelConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelConverter <input> <output>");
+            return;
+        }
+
+        convert(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Converts a level file
+     *
+     * @param input  level to read, text or binary
+     * @param output level to write, text or binary
+     * @throws IOException if the output can not be written
+     */
+    public static void convert(Path input, Path output) throws IOException {
+        LevelTemplate template = LevelTemplate.load(input);
+        if (BinaryLevelFormat.isBinary(output)) {
+            BinaryLevelFormat.write(template, output);
+        } else {
+            AsciiLevelFormat.write(template, output);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Seeded procedural level generator
+ * The level is split in TILE_SIZE x TILE_SIZE tiles, every tile holds a rectangular room
+ * linked to the rooms of its right and bottom neighbours, going around the world, by L shaped corridors
+ * Some links are missing and some corridors are closed by a door, the tiles linked together form the areas of the level
+ * The player spawns in the largest area and coins are only placed in that area, so every coin can be reached,
+ * traps and monsters are placed in every room
+ * Cells on the right and bottom of the last tiles, when the size is not a multiple of TILE_SIZE, are walls
+ *
+ * The cells are written straight into the packed array of the layout, the tile rows are split between the threads of the pool
+ * Every room, link and random of a tile only depends on the seed and the tile coordinates, so the level does not depend on the threads
+ * usage : LevelGenerator <width> <length> <output> [seed]
+ *
+ * @author TopeEstLa
+ */
+public final class LevelGenerator {
+
+    public static final int TILE_SIZE = 16;
+
+    public static final double DEFAULT_COIN_CHANCE = 0.05;
+    public static final double DEFAULT_TRAP_CHANCE = 0.01;
+    public static final double DEFAULT_MONSTER_CHANCE = 0.005;
+
+    private static final int MIN_ROOM_SIZE = 3;
+    private static final int MAX_ROOM_SIZE = TILE_SIZE - 2;
+    private static final double LINK_CHANCE = 0.75;
+    private static final double DOOR_CHANCE = 0.1;
+    private static final int ROWS_PER_TASK = 4;
+
+    private static final byte NONE = 0;
+    private static final byte OPEN = 1;
+    private static final byte DOOR = 2;
+
+    private static final long ROOM_SALT = 1;
+    private static final long RIGHT_SALT = 2;
+    private static final long DOWN_SALT = 3;
+    private static final long DECORATE_SALT = 4;
+    private static final long POPULATE_SALT = 5;
+
+    private static final byte FLOOR = (byte) CellType.FLOOR.ordinal();
+    private static final byte TRAP = (byte) CellType.TRAP.ordinal();
+    private static final byte DOOR_CELL = (byte) CellType.DOOR.ordinal();
+    private static final byte COIN = (byte) (FLOOR | PackedLevelGrid.COIN_BIT);
+
+    private final long seed;
+    private final double coinChance;
+    private final double trapChance;
+    private final double monsterChance;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for LevelGenerator
+     * Uses the default densities and the common pool
+     *
+     * @param seed seed of the levels
+     */
+    public LevelGenerator(long seed) {
+        this(seed, DEFAULT_COIN_CHANCE, DEFAULT_TRAP_CHANCE, DEFAULT_MONSTER_CHANCE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for LevelGenerator
+     *
+     * @param seed          seed of the levels
+     * @param coinChance    probability of a room cell of the spawn area to hold a coin
+     * @param trapChance    probability of a room cell to be a trap
+     * @param monsterChance probability of a room cell to hold a monster
+     * @param pool          pool generating the tiles
+     */
+    public LevelGenerator(long seed, double coinChance, double trapChance, double monsterChance, ForkJoinPool pool) {
+        if (coinChance < 0 || trapChance < 0 || monsterChance < 0 || coinChance + monsterChance > 1 || trapChance > 1) {
+            throw new IllegalArgumentException("Invalid chances");
+        }
+
+        this.seed = seed;
+        this.coinChance = coinChance;
+        this.trapChance = trapChance;
+        this.monsterChance = monsterChance;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: LevelGenerator <width> <length> <output> [seed]");
+            return;
+        }
+
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long start = System.nanoTime();
+        LevelTemplate template = new LevelGenerator(seed).generate(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        long generated = System.nanoTime();
+
+        Path output = Path.of(args[2]);
+        if (BinaryLevelFormat.isBinary(output)) {
+            BinaryLevelFormat.write(template, output);
+        } else {
+            AsciiLevelFormat.write(template, output);
+        }
+        System.out.printf("Generated %dx%d with %d coins and %d monsters in %d ms, written in %d ms%n",
+                template.getLayout().getWidth(), template.getLayout().getLength(), template.getLayout().getCoinIndex().getRemaining(),
+                template.getMonsterCount(), (generated - start) / 1_000_000, (System.nanoTime() - generated) / 1_000_000);
+    }
+
+    /**
+     * Generates a level
+     * Throw IllegalArgumentException if the level is smaller than a tile or larger than an array
+     *
+     * @param width  width of the level
+     * @param length length of the level
+     * @return generated level
+     */
+    public LevelTemplate generate(int width, int length) {
+        if (width < TILE_SIZE || length < TILE_SIZE) {
+            throw new IllegalArgumentException("Level must be at least " + TILE_SIZE + "x" + TILE_SIZE);
+        }
+
+        if ((long) width * length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Level is too large: " + width + "x" + length);
+        }
+
+        Generation generation = new Generation(width, length);
+        // every phase only starts once the previous one is done on every row
+        this.pool.invoke(new RowTask(generation, Phase.PLAN, 0, generation.tilesY));
+        this.pool.invoke(new RowTask(generation, Phase.CARVE, 0, generation.tilesY));
+        this.pool.invoke(new RowTask(generation, Phase.DECORATE, 0, generation.tilesY));
+        generation.findSpawnArea();
+        this.pool.invoke(new RowTask(generation, Phase.POPULATE, 0, generation.tilesY));
+
+        int monsterCount = 0;
+        for (long[] row : generation.monsters) {
+            monsterCount += row.length;
+        }
+        long[] monsters = new long[monsterCount];
+        int offset = 0;
+        for (long[] row : generation.monsters) {
+            System.arraycopy(row, 0, monsters, offset, row.length);
+            offset += row.length;
+        }
+
+        int spawnX = generation.centerX(generation.spawnTile % generation.tilesX, generation.spawnTile / generation.tilesX);
+        int spawnY = generation.centerY(generation.spawnTile % generation.tilesX, generation.spawnTile / generation.tilesX);
+        return new LevelTemplate(new PackedLevelGrid(width, length, generation.cells), spawnX, spawnY, monsters);
+    }
+
+    private SplittableRandom random(int tileX, int tileY, long salt) {
+        long key = ((long) tileX << 32 | (tileY & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L + salt * 0xC2B2AE3D27D4EB4FL;
+        return new SplittableRandom(this.seed ^ key);
+    }
+
+    private static int find(int[] parents, int tile) {
+        while (parents[tile] != tile) {
+            parents[tile] = parents[parents[tile]];
+            tile = parents[tile];
+        }
+        return tile;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private enum Phase {
+        PLAN, CARVE, DECORATE, POPULATE
+    }
+
+    /**
+     * State of one generate call
+     */
+    private final class Generation {
+
+        private final int width;
+        private final int length;
+        private final int tilesX;
+        private final int tilesY;
+        private final byte[] cells;
+        private final int[] rooms;
+        private final byte[] rightLinks;
+        private final byte[] downLinks;
+        private final long[][] monsters;
+
+        private int[] areas;
+        private int spawnArea;
+        private int spawnTile;
+
+        private Generation(int width, int length) {
+            this.width = width;
+            this.length = length;
+            this.tilesX = width / TILE_SIZE;
+            this.tilesY = length / TILE_SIZE;
+            // WALL is the type 0, a new array is all walls
+            this.cells = new byte[width * length];
+            this.rooms = new int[this.tilesX * this.tilesY];
+            this.rightLinks = new byte[this.rooms.length];
+            this.downLinks = new byte[this.rooms.length];
+            this.monsters = new long[this.tilesY][];
+        }
+
+        /**
+         * Draws the room and the links of every tile of the row, before any cell is written
+         */
+        private void plan(int tileY) {
+            for (int tileX = 0; tileX < this.tilesX; tileX++) {
+                int tile = tileY * this.tilesX + tileX;
+                SplittableRandom random = random(tileX, tileY, ROOM_SALT);
+                int roomWidth = random.nextInt(MIN_ROOM_SIZE, MAX_ROOM_SIZE + 1);
+                int roomLength = random.nextInt(MIN_ROOM_SIZE, MAX_ROOM_SIZE + 1);
+                int roomX = random.nextInt(1, TILE_SIZE - roomWidth);
+                int roomY = random.nextInt(1, TILE_SIZE - roomLength);
+                this.rooms[tile] = roomX | roomY << 8 | roomWidth << 16 | roomLength << 24;
+                // a single tile on an axis would link to itself
+                this.rightLinks[tile] = this.tilesX > 1 ? link(random(tileX, tileY, RIGHT_SALT)) : NONE;
+                this.downLinks[tile] = this.tilesY > 1 ? link(random(tileX, tileY, DOWN_SALT)) : NONE;
+            }
+        }
+
+        private byte link(SplittableRandom random) {
+            double roll = random.nextDouble();
+            if (roll >= LINK_CHANCE) {
+                return NONE;
+            }
+            return roll < LINK_CHANCE * DOOR_CHANCE ? DOOR : OPEN;
+        }
+
+        private int centerX(int tileX, int tileY) {
+            int room = this.rooms[tileY * this.tilesX + tileX];
+            return tileX * TILE_SIZE + (room & 0xFF) + (room >>> 16 & 0xFF) / 2;
+        }
+
+        private int centerY(int tileX, int tileY) {
+            int room = this.rooms[tileY * this.tilesX + tileX];
+            return tileY * TILE_SIZE + (room >>> 8 & 0xFF) + (room >>> 24) / 2;
+        }
+
+        /**
+         * Carves the room of a tile and the corridors to its right and bottom neighbours
+         * Corridors may run over cells carved by other threads, every thread only writes FLOOR during this phase
+         */
+        private void carve(int tileX, int tileY) {
+            int room = this.rooms[tileY * this.tilesX + tileX];
+            int left = tileX * TILE_SIZE + (room & 0xFF);
+            int top = tileY * TILE_SIZE + (room >>> 8 & 0xFF);
+            for (int y = top; y < top + (room >>> 24); y++) {
+                Arrays.fill(this.cells, y * this.width + left, y * this.width + left + (room >>> 16 & 0xFF), FLOOR);
+            }
+
+            int x = this.centerX(tileX, tileY);
+            int y = this.centerY(tileX, tileY);
+            int tile = tileY * this.tilesX + tileX;
+            if (this.rightLinks[tile] != NONE) {
+                int nextX = (tileX + 1) % this.tilesX;
+                int toX = this.centerX(nextX, tileY);
+                this.carveRow(y, x, Math.floorMod(toX - x, this.width));
+                this.carveColumn(toX, Math.min(y, this.centerY(nextX, tileY)), Math.abs(this.centerY(nextX, tileY) - y));
+            }
+            if (this.downLinks[tile] != NONE) {
+                int nextY = (tileY + 1) % this.tilesY;
+                int toY = this.centerY(tileX, nextY);
+                this.carveColumn(x, y, Math.floorMod(toY - y, this.length));
+                this.carveRow(toY, Math.min(x, this.centerX(tileX, nextY)), Math.abs(this.centerX(tileX, nextY) - x));
+            }
+        }
+
+        private void carveRow(int y, int fromX, int distance) {
+            for (int i = 0; i <= distance; i++) {
+                this.cells[y * this.width + (fromX + i) % this.width] = FLOOR;
+            }
+        }
+
+        private void carveColumn(int x, int fromY, int distance) {
+            for (int i = 0; i <= distance; i++) {
+                this.cells[(fromY + i) % this.length * this.width + x] = FLOOR;
+            }
+        }
+
+        /**
+         * Closes the corridors of the tile with a door on the first cell past the tile,
+         * only this corridor crosses the border of the tile there, and sets the traps of the room
+         */
+        private void decorate(int tileX, int tileY) {
+            int tile = tileY * this.tilesX + tileX;
+            int x = this.centerX(tileX, tileY);
+            int y = this.centerY(tileX, tileY);
+            if (this.rightLinks[tile] == DOOR) {
+                this.cells[y * this.width + (tileX + 1) * TILE_SIZE % this.width] = DOOR_CELL;
+            }
+            if (this.downLinks[tile] == DOOR) {
+                this.cells[(tileY + 1) * TILE_SIZE % this.length * this.width + x] = DOOR_CELL;
+            }
+
+            if (trapChance == 0) {
+                return;
+            }
+            SplittableRandom random = random(tileX, tileY, DECORATE_SALT);
+            int room = this.rooms[tile];
+            int left = tileX * TILE_SIZE + (room & 0xFF);
+            int top = tileY * TILE_SIZE + (room >>> 8 & 0xFF);
+            for (int cellY = top; cellY < top + (room >>> 24); cellY++) {
+                for (int cellX = left; cellX < left + (room >>> 16 & 0xFF); cellX++) {
+                    // the center is where the corridors start, and the spawn of the spawn tile
+                    if (random.nextDouble() < trapChance && (cellX != x || cellY != y)) {
+                        this.cells[cellY * this.width + cellX] = TRAP;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Labels the areas of tiles linked by open corridors and picks the largest one for the spawn
+         * Sequential, there are TILE_SIZE^2 times less tiles than cells
+         */
+        private void findSpawnArea() {
+            int[] parents = new int[this.rooms.length];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = i;
+            }
+
+            for (int tile = 0; tile < parents.length; tile++) {
+                int tileX = tile % this.tilesX;
+                int tileY = tile / this.tilesX;
+                if (this.rightLinks[tile] == OPEN) {
+                    union(parents, tile, tileY * this.tilesX + (tileX + 1) % this.tilesX);
+                }
+                if (this.downLinks[tile] == OPEN) {
+                    union(parents, tile, (tileY + 1) % this.tilesY * this.tilesX + tileX);
+                }
+            }
+
+            int[] sizes = new int[parents.length];
+            int largest = 0;
+            for (int tile = 0; tile < parents.length; tile++) {
+                parents[tile] = find(parents, tile);
+                sizes[parents[tile]]++;
+                if (sizes[parents[tile]] > sizes[largest]) {
+                    largest = parents[tile];
+                }
+            }
+
+            this.areas = parents;
+            this.spawnArea = largest;
+            this.spawnTile = largest;
+            for (int tile = 0; tile < parents.length; tile++) {
+                if (parents[tile] == largest) {
+                    this.spawnTile = tile;
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Places the coins, in the spawn area only, and the monsters on the floor of the rooms of a row
+         */
+        private void populate(int tileY) {
+            long[] found = new long[16];
+            int count = 0;
+            int spawnX = this.centerX(this.spawnTile % this.tilesX, this.spawnTile / this.tilesX);
+            int spawnY = this.centerY(this.spawnTile % this.tilesX, this.spawnTile / this.tilesX);
+            for (int tileX = 0; tileX < this.tilesX; tileX++) {
+                int tile = tileY * this.tilesX + tileX;
+                boolean reachable = this.areas[tile] == this.spawnArea;
+                SplittableRandom random = random(tileX, tileY, POPULATE_SALT);
+                int room = this.rooms[tile];
+                int left = tileX * TILE_SIZE + (room & 0xFF);
+                int top = tileY * TILE_SIZE + (room >>> 8 & 0xFF);
+                for (int y = top; y < top + (room >>> 24); y++) {
+                    for (int x = left; x < left + (room >>> 16 & 0xFF); x++) {
+                        double roll = random.nextDouble();
+                        int index = y * this.width + x;
+                        if (this.cells[index] != FLOOR || (x == spawnX && y == spawnY)) {
+                            continue;
+                        }
+
+                        if (roll < coinChance) {
+                            if (reachable) {
+                                this.cells[index] = COIN;
+                            }
+                        } else if (roll < coinChance + monsterChance) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = Location.pack(x, y);
+                        }
+                    }
+                }
+            }
+            this.monsters[tileY] = Arrays.copyOf(found, count);
+        }
+    }
+
+    /**
+     * Runs a phase on a range of tile rows, split in two until ROWS_PER_TASK rows are left
+     */
+    private final class RowTask extends RecursiveAction {
+
+        private final Generation generation;
+        private final Phase phase;
+        private final int from;
+        private final int to;
+
+        private RowTask(Generation generation, Phase phase, int from, int to) {
+            this.generation = generation;
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > ROWS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RowTask(this.generation, this.phase, this.from, middle), new RowTask(this.generation, this.phase, middle, this.to));
+                return;
+            }
+
+            for (int tileY = this.from; tileY < this.to; tileY++) {
+                switch (this.phase) {
+                    case PLAN -> this.generation.plan(tileY);
+                    case CARVE -> {
+                        for (int tileX = 0; tileX < this.generation.tilesX; tileX++) {
+                            this.generation.carve(tileX, tileY);
+                        }
+                    }
+                    case DECORATE -> {
+                        for (int tileX = 0; tileX < this.generation.tilesX; tileX++) {
+                            this.generation.decorate(tileX, tileY);
+                        }
+                    }
+                    case POPULATE -> this.generation.populate(tileY);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.enums.CellType;
+import io.squid.cytale.grid.PackedLevelGrid;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Parses level files
+ * one char per cell, one line per row, every row must be as wide as the first one
+ * '1' player spawn, '.' coin, 'R' monster, other chars are CellType symbols
+ * Lines end with "\n" or "\r\n", the last line break is optional
+ * The file is memory mapped and decoded byte by byte straight into the packed cells, no String is created
+ *
+ * @author TopeEstLa
+ */
+public final class LevelParser {
+
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private static final byte UNKNOWN = -1;
+    private static final byte SPAWN = -2;
+    private static final byte MONSTER = -3;
+    private static final byte[] DECODE = new byte[256];
+
+    static {
+        Arrays.fill(DECODE, UNKNOWN);
+        for (CellType type : CellType.values()) {
+            DECODE[type.getSymbol() & 0xFF] = (byte) type.ordinal();
+        }
+        DECODE['.'] = (byte) (CellType.FLOOR.ordinal() | PackedLevelGrid.COIN_BIT);
+        DECODE['1'] = SPAWN;
+        DECODE['R'] = MONSTER;
+    }
+
+    private LevelParser() {
+    }
+
+    /**
+     * Parsing a level from a file
+     * Throw IllegalArgumentException with the line and column of the error if the file is malformed
+     *
+     * @param file Path to the level file
+     * @return parsed template
+     */
+    public static LevelTemplate parse(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(new MappedInput(channel));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading file: " + e.getMessage());
+        }
+    }
+
+    private static LevelTemplate parse(MappedInput input) throws IOException {
+        long size = input.size();
+
+        int width = 0;
+        int lineBreak = 0;
+        int read;
+        while ((read = input.next()) >= 0 && read != '\n') {
+            width++;
+        }
+        if (read == '\n' && width > 0) {
+            lineBreak = 1;
+            input.seek(width - 1L);
+            if (input.next() == '\r') {
+                width--;
+                lineBreak = 2;
+            }
+        }
+
+        if (width == 0) {
+            throw new IllegalArgumentException("Line 1 is empty");
+        }
+
+        long rowBytes = width + (long) lineBreak;
+        long length;
+        if (lineBreak == 0) {
+            length = 1;
+        } else if (size % rowBytes == 0) {
+            length = size / rowBytes;
+        } else if ((size + lineBreak) % rowBytes == 0) {
+            length = (size + lineBreak) / rowBytes;
+        } else {
+            length = countRows(input, width);
+        }
+
+        if (width * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Level is too large: " + width + "x" + length);
+        }
+
+        input.seek(0);
+        return decode(input, width, (int) length);
+    }
+
+    /**
+     * Counts the rows of the file, checking that every line is as wide as the first one
+     * Used when the file size does not match width * rows, which usually means a ragged line
+     */
+    private static long countRows(MappedInput input, int width) throws IOException {
+        input.seek(0);
+        long rows = 0;
+        int column = 0;
+        int read;
+        while ((read = input.next()) >= 0) {
+            if (read == '\r' && input.peek() == '\n') {
+                continue;
+            }
+
+            if (read == '\n') {
+                checkRowEnd(rows + 1, column, width);
+                rows++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+
+        if (column > 0) {
+            checkRowEnd(rows + 1, column, width);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static LevelTemplate decode(MappedInput input, int width, int length) throws IOException {
+        byte[] cells = new byte[width * length];
+        long[] monsters = new long[16];
+        int monsterCount = 0;
+        int spawnX = -1;
+        int spawnY = -1;
+
+        int index = 0;
+        for (int y = 0; y < length; y++) {
+            for (int x = 0; x < width; x++) {
+                int read = input.next();
+                if (read < 0 || read == '\n' || (read == '\r' && input.peek() == '\n')) {
+                    checkRowEnd(y + 1L, x, width);
+                }
+
+                byte cell = DECODE[read];
+                if (cell >= 0) {
+                    cells[index++] = cell;
+                    continue;
+                }
+
+                if (cell == SPAWN) {
+                    spawnX = x;
+                    spawnY = y;
+                } else if (cell == MONSTER) {
+                    if (monsterCount == monsters.length) {
+                        monsters = Arrays.copyOf(monsters, monsterCount * 2);
+                    }
+                    monsters[monsterCount++] = Location.pack(x, y);
+                } else {
+                    throw new IllegalArgumentException(String.format("Unknown cell type symbol: %c at line %d, column %d", (char) read, y + 1, x + 1));
+                }
+                cells[index++] = (byte) CellType.FLOOR.ordinal();
+            }
+
+            int read = input.next();
+            if (read == '\r' && input.peek() == '\n') {
+                read = input.next();
+            }
+
+            if (read >= 0 && read != '\n') {
+                int column = width;
+                while (read >= 0 && read != '\n' && !(read == '\r' && input.peek() == '\n')) {
+                    column++;
+                    read = input.next();
+                }
+                checkRowEnd(y + 1L, column, width);
+            }
+        }
+
+        if (input.next() >= 0) {
+            throw new IllegalArgumentException(String.format("Line too short at line %d, column 1: expected %d columns", length + 1, width));
+        }
+
+        if (spawnX < 0) {
+            throw new IllegalArgumentException("Player position not found in level file");
+        }
+
+        return new LevelTemplate(new PackedLevelGrid(width, length, cells), spawnX, spawnY, Arrays.copyOf(monsters, monsterCount));
+    }
+
+    private static void checkRowEnd(long line, int columns, int width) {
+        if (columns < width) {
+            throw new IllegalArgumentException(String.format("Line too short at line %d, column %d: %d columns, expected %d", line, columns + 1, columns, width));
+        }
+
+        if (columns > width) {
+            throw new IllegalArgumentException(String.format("Line too long at line %d, column %d: %d columns, expected %d", line, width + 1, columns, width));
+        }
+    }
+
+    /**
+     * Sequential reader over a file mapped in windows of WINDOW_SIZE bytes
+     * so files larger than 2GB can be read
+     */
+    private static final class MappedInput {
+
+        private final FileChannel channel;
+        private final long size;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        private MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.map(0);
+        }
+
+        private void map(long position) throws IOException {
+            this.windowStart = position;
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, this.size - position));
+        }
+
+        private long size() {
+            return this.size;
+        }
+
+        private int next() throws IOException {
+            if (!this.window.hasRemaining()) {
+                long position = this.windowStart + this.window.limit();
+                if (position >= this.size) {
+                    return -1;
+                }
+                this.map(position);
+            }
+            return this.window.get() & 0xFF;
+        }
+
+        private int peek() throws IOException {
+            if (this.window.hasRemaining()) {
+                return this.window.get(this.window.position()) & 0xFF;
+            }
+
+            long position = this.windowStart + this.window.limit();
+            if (position >= this.size) {
+                return -1;
+            }
+            this.map(position);
+            return this.window.get(0) & 0xFF;
+        }
+
+        private void seek(long position) throws IOException {
+            if (position >= this.windowStart && position < this.windowStart + this.window.limit()) {
+                this.window.position((int) (position - this.windowStart));
+            } else {
+                this.map(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.grid.Connectivity;
+import io.squid.cytale.grid.PackedLevelGrid;
+import io.squid.cytale.metrics.Metrics;
+
+import java.nio.file.Path;
+
+/**
+ * Immutable parsed level
+ * Holds the initial layout, the player spawn and the monster spawns
+ * Playable levels are created with instantiate, they share the layout until they modify it
+ *
+ * @author TopeEstLa
+ */
+public final class LevelTemplate {
+
+    private final PackedLevelGrid layout;
+    private final int spawnX;
+    private final int spawnY;
+    private final long[] monsterSpawns;
+
+    private volatile Connectivity connectivity;
+    private int unreachableCoins;
+
+    /**
+     * Constructor for LevelTemplate
+     * The layout must not be modified once given to the template
+     * Throw IllegalArgumentException if the spawn is out of bounds or not walkable
+     *
+     * @param layout        initial layout
+     * @param spawnX        player spawn X position
+     * @param spawnY        player spawn Y position
+     * @param monsterSpawns monster spawns packed with Location.pack
+     */
+    public LevelTemplate(PackedLevelGrid layout, int spawnX, int spawnY, long[] monsterSpawns) {
+        if (spawnX < 0 || spawnY < 0 || spawnX >= layout.getWidth() || spawnY >= layout.getLength()) {
+            throw new IllegalArgumentException("Player position is out of bounds");
+        }
+
+        if (!layout.getType(spawnX, spawnY).isWalkable()) {
+            throw new IllegalArgumentException("Player position must be walkable");
+        }
+
+        this.layout = layout;
+        this.spawnX = spawnX;
+        this.spawnY = spawnY;
+        this.monsterSpawns = monsterSpawns.clone();
+    }
+
+    /**
+     * Loads a level file, binary (.cytl) or text
+     *
+     * @param file Path to the level file
+     * @return parsed template
+     */
+    public static LevelTemplate load(Path file) {
+        long start = Metrics.start();
+        LevelTemplate template = BinaryLevelFormat.isBinary(file) ? BinaryLevelFormat.read(file) : LevelParser.parse(file);
+        Metrics.stop(Metrics.Timer.PARSE, start);
+        return template;
+    }
+
+    /**
+     * Creates a playable level from the template
+     *
+     * @param player Player of the level
+     * @return new Level
+     */
+    public Level instantiate(Player player) {
+        return new Level(this, player);
+    }
+
+    /**
+     * Creates a playable level from the template
+     * Two levels created with the same seed play the same way for the same inputs
+     *
+     * @param player Player of the level
+     * @param seed   seed of the random generators of the level
+     * @return new Level
+     */
+    public Level instantiate(Player player, long seed) {
+        return new Level(this, player, seed);
+    }
+
+    /**
+     * Creates a playable level from the template
+     *
+     * @param player       Player of the level
+     * @param seed         seed of the random generators of the level
+     * @param monsterStore true to keep the monsters in a MonsterStore, see Level.enableMonsterStore
+     * @return new Level
+     */
+    public Level instantiate(Player player, long seed, boolean monsterStore) {
+        return new Level(this, player, seed, monsterStore);
+    }
+
+    /**
+     * Gets the initial layout, read only
+     *
+     * @return layout of the template
+     */
+    public PackedLevelGrid getLayout() {
+        return layout;
+    }
+
+    public int getSpawnX() {
+        return spawnX;
+    }
+
+    public int getSpawnY() {
+        return spawnY;
+    }
+
+    public int getMonsterCount() {
+        return monsterSpawns.length;
+    }
+
+    /**
+     * Gets the spawn of a monster
+     *
+     * @param index index of the monster
+     * @return spawn packed with Location.pack
+     */
+    public long getMonsterSpawn(int index) {
+        return monsterSpawns[index];
+    }
+
+    /**
+     * Gets the connected components of the layout, analyzed on the first call then shared by every level of the template
+     *
+     * @return components of the walkable cells
+     */
+    public Connectivity getConnectivity() {
+        Connectivity result = this.connectivity;
+        if (result == null) {
+            synchronized (this) {
+                result = this.connectivity;
+                if (result == null) {
+                    result = Connectivity.analyze(this.layout);
+                    this.unreachableCoins = countUnreachableCoins(result);
+                    this.connectivity = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of coins the player can not reach from the spawn, the level can not be completed when there are some
+     *
+     * @return unreachable coins
+     */
+    public int getUnreachableCoins() {
+        this.getConnectivity();
+        return unreachableCoins;
+    }
+
+    private int countUnreachableCoins(Connectivity connectivity) {
+        int spawn = connectivity.getComponent(this.spawnX, this.spawnY);
+        int count = 0;
+        int width = this.layout.getWidth();
+        for (int y = 0; y < this.layout.getLength(); y++) {
+            int row = this.layout.index(0, y);
+            for (int x = 0; x < width; x++) {
+                if ((this.layout.getRaw(row + x) & PackedLevelGrid.COIN_BIT) != 0 && connectivity.getComponent(x, y) != spawn) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
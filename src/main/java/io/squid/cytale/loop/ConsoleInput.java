@@ -0,0 +1,94 @@
+package io.squid.cytale.loop;
+
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reads the lines typed by the player on a dedicated daemon thread
+ * Lines are handed over through a lock free queue, the game thread never blocks on the console
+ * unless it asks for it with take
+ *
+ * @author TopeEstLa
+ */
+public class ConsoleInput {
+
+    private final Queue<String> lines = new ConcurrentLinkedQueue<>();
+    private final Thread reader;
+
+    private volatile Thread waiter;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for ConsoleInput
+     * starts the reading thread
+     * @param in stream to read, usually System.in
+     */
+    public ConsoleInput(InputStream in) {
+        this.reader = new Thread(() -> this.read(in), "cytale-input");
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    private void read(InputStream in) {
+        Scanner scanner = new Scanner(in);
+        try {
+            while (true) {
+                this.lines.add(scanner.nextLine());
+                this.wakeUp();
+            }
+        } catch (NoSuchElementException | IllegalStateException e) {
+            this.closed = true;
+            this.wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        Thread thread = this.waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Gets the next typed line without waiting
+     * @return the line, null if nothing was typed
+     */
+    public String poll() {
+        return this.lines.poll();
+    }
+
+    /**
+     * Waits for the next typed line
+     * @return the line, null if the input is closed
+     */
+    public String take() {
+        this.waiter = Thread.currentThread();
+        try {
+            while (true) {
+                String line = this.lines.poll();
+                if (line != null) {
+                    return line;
+                }
+
+                if (this.closed) {
+                    return this.lines.poll();
+                }
+                LockSupport.park(this);
+            }
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    /**
+     * Checks if the input reached its end
+     * @return true if no more lines will be typed
+     */
+    public boolean isClosed() {
+        return closed && lines.isEmpty();
+    }
+}
@@ -0,0 +1,171 @@
+package io.squid.cytale.loop;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.enums.Command;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.metrics.LatencyHistogram;
+import io.squid.cytale.metrics.Metrics;
+import io.squid.cytale.render.Renderer;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed timestep game loop
+ * The level ticks ticksPerSecond times per second whatever the player types,
+ * each tick applies at most one queued move then ticks the entities, moves typed faster than the tick rate wait in the queue
+ * Frames are drawn at most framesPerSecond times per second, and only when a tick happened since the last frame
+ * Late ticks are caught up, up to MAX_CATCH_UP ticks in a row, before drawing again
+ *
+ * @author TopeEstLa
+ */
+public class GameLoop {
+
+    public static final int MAX_CATCH_UP = 5;
+
+    /**
+     * Why the loop stopped
+     */
+    public enum Outcome {
+        COMPLETED,
+        DEAD,
+        EXIT,
+    }
+
+    private final Level level;
+    private final ConsoleInput input;
+    private final Renderer renderer;
+    private final long tickNanos;
+    private final long frameNanos;
+
+    private final LatencyHistogram tickTimes = new LatencyHistogram();
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+
+    private final Queue<Direction> pendingMoves = new ArrayDeque<>();
+
+    /**
+     * Constructor for GameLoop
+     * @param level Level to play
+     * @param input lines typed by the player
+     * @param renderer draws the frames
+     * @param ticksPerSecond simulation rate
+     * @param framesPerSecond maximum drawing rate
+     */
+    public GameLoop(Level level, ConsoleInput input, Renderer renderer, int ticksPerSecond, int framesPerSecond) {
+        if (ticksPerSecond <= 0 || framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick and frame rates must be positive");
+        }
+
+        this.level = level;
+        this.input = input;
+        this.renderer = renderer;
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+    }
+
+    /**
+     * Runs the level until it is completed, the player dies or exits
+     * @return why the loop stopped
+     */
+    public Outcome run() {
+        long nextTick = System.nanoTime();
+        long nextFrame = nextTick;
+        boolean dirty = true;
+
+        while (true) {
+            if (this.readInput()) {
+                return Outcome.EXIT;
+            }
+
+            long now = System.nanoTime();
+            int ticks = 0;
+            while (now - nextTick >= 0 && ticks < MAX_CATCH_UP) {
+                long start = System.nanoTime();
+                this.tick();
+                this.tickTimes.record(System.nanoTime() - start);
+
+                nextTick += this.tickNanos;
+                ticks++;
+                dirty = true;
+
+                if (this.level.isCompleted() || this.level.getPlayer().isDead()) {
+                    this.draw();
+                    return this.level.isCompleted() ? Outcome.COMPLETED : Outcome.DEAD;
+                }
+            }
+
+            if (ticks == MAX_CATCH_UP) {
+                // too late to catch up, drop the missed ticks
+                nextTick = now + this.tickNanos;
+            }
+
+            now = System.nanoTime();
+            if (dirty && now - nextFrame >= 0) {
+                this.draw();
+                nextFrame = now + this.frameNanos;
+                dirty = false;
+            }
+
+            long wakeUp = dirty ? Math.min(nextTick, nextFrame) : nextTick;
+            long sleep = wakeUp - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    /**
+     * Drains the typed lines, queues the moves for the next ticks
+     * @return true if the player asked to exit
+     */
+    private boolean readInput() {
+        String line;
+        while ((line = this.input.poll()) != null) {
+            Command command = Command.fromInput(line);
+            if (command == Command.EXIT) {
+                return true;
+            }
+
+            if (command == Command.STATS) {
+                System.out.println(Metrics.report());
+            }
+
+            if (command != null && command.isMove()) {
+                this.pendingMoves.add(command.getDirection());
+            }
+        }
+        return this.input.isClosed() && this.pendingMoves.isEmpty();
+    }
+
+    private void tick() {
+        Direction move = this.pendingMoves.poll();
+        if (move != null) {
+            this.level.stepPlayer(move);
+        }
+        this.level.tickLevel();
+    }
+
+    private void draw() {
+        long start = System.nanoTime();
+        this.renderer.render(this.level);
+        this.frameTimes.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the time spent in each tick
+     * @return tick duration histogram
+     */
+    public LatencyHistogram getTickTimes() {
+        return tickTimes;
+    }
+
+    /**
+     * Gets the time spent drawing each frame
+     * @return frame duration histogram
+     */
+    public LatencyHistogram getFrameTimes() {
+        return frameTimes;
+    }
+}
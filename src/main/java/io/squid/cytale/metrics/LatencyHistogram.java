@@ -0,0 +1,126 @@
+package io.squid.cytale.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Log linear histogram of durations in nanoseconds, in the spirit of HdrHistogram
+ * Every power of two is split in 64 linear buckets so recorded values keep ~1.5% precision
+ * Recording is a couple of bit operations and never allocates
+ * Not thread safe, a histogram must be written by a single thread
+ *
+ * @author TopeEstLa
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records a duration
+     * negative durations are recorded as 0
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.total += value;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one
+     * @param other histogram to merge
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.total += other.total;
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Forgets every recorded value
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.total = 0;
+        this.max = 0;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall
+     * @param percentile percentile between 0 and 100
+     * @return highest value of the matching bucket in nanoseconds, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.total / this.count;
+    }
+
+    /**
+     * Short summary in microseconds
+     * format : "n=120 p50=10.2us p99=40.1us max=52.0us"
+     * @return summary of the histogram
+     */
+    public String summary() {
+        return String.format("n=%d p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus", this.count,
+                getValueAtPercentile(50) / 1000.0, getValueAtPercentile(90) / 1000.0,
+                getValueAtPercentile(99) / 1000.0, this.max / 1000.0);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - SUB_BITS));
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + (top - SUB_COUNT);
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        long top = SUB_COUNT + bucket % SUB_COUNT;
+        int shift = exponent - SUB_BITS;
+        return (top << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,284 @@
+package io.squid.cytale.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide timers and counters of the game
+ * Enabled with -Dcytale.metrics=true, when disabled every call is a branch on a constant the JIT removes
+ * Timers are LatencyHistogram, entity costs are measured per entity class by SequentialTickScheduler
+ * Allocations are those of the thread ticking the level, a TickEvent is committed to JFR on every tick
+ * Dump with report or toJson, -Dcytale.metrics.json=FILE writes the JSON when the application stops
+ *
+ * @author TopeEstLa
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("cytale.metrics");
+
+    /**
+     * Timed sections
+     */
+    public enum Timer {
+        PARSE,
+        MOVE,
+        TICK,
+        RENDER,
+        COMPLETION_CHECK,
+    }
+
+    /**
+     * Counted quantities
+     */
+    public enum Counter {
+        ENTITY_TICKS,
+        SKIPPED_ENTITIES,
+        DORMANT_ENTITIES,
+        ALLOCATED_BYTES,
+    }
+
+    private static final LatencyHistogram[] TIMERS = new LatencyHistogram[Timer.values().length];
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Map<Class<?>, LatencyHistogram> ENTITY_TIMERS = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS = ENABLED ? allocationBean() : null;
+
+    private static volatile long since = System.nanoTime();
+
+    static {
+        for (int i = 0; i < TIMERS.length; i++) {
+            TIMERS[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Starts timing a section
+     * @return start time to give to stop, 0 when disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since start
+     * @param timer timed section
+     * @param start value returned by start
+     */
+    public static void stop(Timer timer, long start) {
+        if (ENABLED) {
+            record(TIMERS[timer.ordinal()], System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time spent ticking an entity, grouped by entity class
+     * @param type class of the entity
+     * @param start value returned by start
+     */
+    public static void stopEntity(Class<?> type, long start) {
+        if (ENABLED) {
+            record(ENTITY_TIMERS.computeIfAbsent(type, key -> new LatencyHistogram()), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by the current thread
+     * @return allocated bytes, 0 when disabled or not supported by the JVM
+     */
+    public static long allocatedBytes() {
+        return ENABLED && THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Records a level tick: its duration, the bytes it allocated, and commits a TickEvent
+     * @param start value returned by start
+     * @param allocatedBefore value returned by allocatedBytes before the tick
+     * @param tick number of the tick
+     * @param entities number of entities of the level
+     */
+    public static void stopTick(long start, long allocatedBefore, long tick, int entities) {
+        if (!ENABLED) {
+            return;
+        }
+
+        long duration = System.nanoTime() - start;
+        long allocated = Math.max(0, allocatedBytes() - allocatedBefore);
+        record(TIMERS[Timer.TICK.ordinal()], duration);
+        COUNTERS[Counter.ALLOCATED_BYTES.ordinal()].add(allocated);
+
+        TickEvent event = new TickEvent();
+        if (event.isEnabled()) {
+            event.tick = tick;
+            event.entities = entities;
+            event.elapsed = duration;
+            event.allocated = allocated;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds to a counter
+     * @param counter Counter to increase
+     * @param amount amount to add
+     */
+    public static void add(Counter counter, long amount) {
+        if (ENABLED) {
+            COUNTERS[counter.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Gets a copy of a timer
+     * @param timer timed section
+     * @return snapshot of the histogram
+     */
+    public static LatencyHistogram getTimer(Timer timer) {
+        return snapshot(TIMERS[timer.ordinal()]);
+    }
+
+    public static long getCounter(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * Forgets every recorded value
+     */
+    public static void reset() {
+        for (LatencyHistogram timer : TIMERS) {
+            synchronized (timer) {
+                timer.reset();
+            }
+        }
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+        ENTITY_TIMERS.clear();
+        since = System.nanoTime();
+    }
+
+    /**
+     * Human readable dump, one line per timer and counter
+     * @return report of the metrics
+     */
+    public static String report() {
+        if (!ENABLED) {
+            return "Metrics are disabled, start with -Dcytale.metrics=true";
+        }
+
+        double seconds = (System.nanoTime() - since) / 1e9;
+        StringBuilder builder = new StringBuilder(String.format("Metrics of the last %.1fs%n", seconds));
+        for (Timer timer : Timer.values()) {
+            builder.append(String.format("%-18s %s%n", name(timer), getTimer(timer).summary()));
+        }
+        entityTimers().forEach((type, histogram) ->
+                builder.append(String.format("%-18s %s%n", "entity " + type, histogram.summary())));
+        for (Counter counter : Counter.values()) {
+            builder.append(String.format("%-18s %d%n", name(counter), getCounter(counter)));
+        }
+
+        long ticks = getTimer(Timer.TICK).getCount();
+        long allocated = getCounter(Counter.ALLOCATED_BYTES);
+        builder.append(String.format("%-18s %.1f KB/s, %.1f KB/tick", "allocation rate",
+                allocated / 1024.0 / seconds, ticks == 0 ? 0 : allocated / 1024.0 / ticks));
+        return builder.toString();
+    }
+
+    /**
+     * JSON dump, durations in nanoseconds
+     * {"seconds":..,"timers":{"tick":{"count":..,"mean":..,"p50":..,"p90":..,"p99":..,"max":..},..},
+     * "entities":{"Monster":{..}},"counters":{"entity_ticks":..,..},"allocatedBytesPerSecond":..}
+     * @return metrics as JSON
+     */
+    public static String toJson() {
+        double seconds = (System.nanoTime() - since) / 1e9;
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "{\"enabled\":%b,\"seconds\":%.3f,\"timers\":{", ENABLED, seconds));
+        String separator = "";
+        for (Timer timer : Timer.values()) {
+            builder.append(separator);
+            appendHistogram(builder, name(timer), getTimer(timer));
+            separator = ",";
+        }
+
+        builder.append("},\"entities\":{");
+        separator = "";
+        for (Map.Entry<String, LatencyHistogram> entry : entityTimers().entrySet()) {
+            builder.append(separator);
+            appendHistogram(builder, entry.getKey(), entry.getValue());
+            separator = ",";
+        }
+
+        builder.append("},\"counters\":{");
+        separator = "";
+        for (Counter counter : Counter.values()) {
+            builder.append(separator).append('"').append(name(counter)).append("\":").append(getCounter(counter));
+            separator = ",";
+        }
+        builder.append(String.format(Locale.ROOT, "},\"allocatedBytesPerSecond\":%.1f}",
+                seconds == 0 ? 0 : getCounter(Counter.ALLOCATED_BYTES) / seconds));
+        return builder.toString();
+    }
+
+    /**
+     * Writes toJson to a file
+     * @param file file to write, replaced if it exists
+     */
+    public static void writeJson(Path file) throws IOException {
+        Files.writeString(file, toJson());
+    }
+
+    private static void record(LatencyHistogram histogram, long nanos) {
+        synchronized (histogram) {
+            histogram.record(nanos);
+        }
+    }
+
+    private static LatencyHistogram snapshot(LatencyHistogram histogram) {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (histogram) {
+            copy.add(histogram);
+        }
+        return copy;
+    }
+
+    private static Map<String, LatencyHistogram> entityTimers() {
+        Map<String, LatencyHistogram> timers = new TreeMap<>();
+        ENTITY_TIMERS.forEach((type, histogram) -> timers.merge(type.getSimpleName(), snapshot(histogram), (a, b) -> {
+            a.add(b);
+            return a;
+        }));
+        return timers;
+    }
+
+    private static void appendHistogram(StringBuilder builder, String name, LatencyHistogram histogram) {
+        builder.append(String.format(Locale.ROOT, "\"%s\":{\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"max\":%d}",
+                name, histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getMax()));
+    }
+
+    private static String name(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+}
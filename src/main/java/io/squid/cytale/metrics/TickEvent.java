@@ -0,0 +1,36 @@
+package io.squid.cytale.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed by Metrics.stopTick after every level tick
+ * Record with -XX:StartFlightRecording and -Dcytale.metrics=true
+ *
+ * @author TopeEstLa
+ */
+@Name("io.squid.cytale.Tick")
+@Label("Level Tick")
+@Category("CyTale")
+@Description("Duration and allocations of a level tick")
+public class TickEvent extends Event {
+
+    @Label("Tick")
+    long tick;
+
+    @Label("Entities")
+    int entities;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,133 @@
+package io.squid.cytale.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Board of a client, rebuilt from the BOARD frames of the server
+ * Unknown cells, never sent yet, are '\0'
+ *
+ * @author TopeEstLa
+ */
+public final class ClientBoard {
+
+    private char[] cells = new char[0];
+    private char[] shifted = new char[0];
+    private int columns;
+    private int rows;
+    private int originX;
+    private int originY;
+
+    private long tick;
+    private int lastSequence = -1;
+    private int score;
+    private int health;
+
+    /**
+     * Applies a BOARD frame
+     * Throw IllegalArgumentException if a delta does not match the current board
+     *
+     * @param payload frame positioned right after the type byte
+     */
+    public void apply(ByteBuffer payload) {
+        this.tick = payload.getLong();
+        this.lastSequence = payload.getInt();
+        this.score = payload.getInt();
+        this.health = payload.getInt();
+        int nextOriginX = payload.getInt();
+        int nextOriginY = payload.getInt();
+        int nextColumns = payload.getShort() & 0xFFFF;
+        int nextRows = payload.getShort() & 0xFFFF;
+        boolean full = payload.get() != 0;
+
+        int size = nextColumns * nextRows;
+        if (full) {
+            if (this.cells.length < size) {
+                this.cells = new char[size];
+                this.shifted = new char[size];
+            }
+            for (int i = 0; i < size; i++) {
+                this.cells[i] = (char) (payload.get() & 0xFF);
+            }
+        } else {
+            if (nextColumns != this.columns || nextRows != this.rows) {
+                throw new IllegalArgumentException("Delta does not match the board size");
+            }
+
+            int dx = nextOriginX - this.originX;
+            int dy = nextOriginY - this.originY;
+            if (dx != 0 || dy != 0) {
+                for (int row = 0; row < nextRows; row++) {
+                    int previousRow = row + dy;
+                    for (int column = 0; column < nextColumns; column++) {
+                        int previousColumn = column + dx;
+                        this.shifted[row * nextColumns + column] = previousColumn >= 0 && previousColumn < nextColumns && previousRow >= 0 && previousRow < nextRows
+                                ? this.cells[previousRow * nextColumns + previousColumn] : 0;
+                    }
+                }
+                char[] swap = this.cells;
+                this.cells = this.shifted;
+                this.shifted = swap;
+            }
+
+            int changes = payload.getShort() & 0xFFFF;
+            for (int i = 0; i < changes; i++) {
+                int index = payload.getShort() & 0xFFFF;
+                if (index >= size) {
+                    throw new IllegalArgumentException("Cell " + index + " is out of the board");
+                }
+                this.cells[index] = (char) (payload.get() & 0xFF);
+            }
+        }
+
+        this.columns = nextColumns;
+        this.rows = nextRows;
+        this.originX = nextOriginX;
+        this.originY = nextOriginY;
+    }
+
+    /**
+     * Gets the symbol at the given position of the board
+     * @param column column in the board
+     * @param row row in the board
+     * @return symbol of the cell
+     */
+    public char get(int column, int row) {
+        return this.cells[row * this.columns + column];
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the sequence number of the last move the server received before building the board
+     * @return sequence number, -1 before the first move
+     */
+    public int getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+}
@@ -0,0 +1,174 @@
+package io.squid.cytale.net;
+
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.render.Viewport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * TCP server playing a level with many clients, see Protocol
+ * An acceptor thread hands the connections over to the rooms in turn,
+ * every room is a copy of the level ticked by its own thread for all its sessions, see Room
+ * usage : GameServer <level> [port] [rooms] [ticksPerSecond]
+ *
+ * @author TopeEstLa
+ */
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7777;
+    public static final int DEFAULT_TICKS_PER_SECOND = 20;
+    public static final Viewport DEFAULT_VIEWPORT = new Viewport(20, 10);
+
+    private final ServerSocketChannel server;
+    private final Room[] rooms;
+    private final Thread[] threads;
+    private final Thread acceptor;
+    private int nextRoom;
+
+    /**
+     * Constructor for GameServer
+     * The port is bound right away, the threads are started by start
+     *
+     * @param template       level played in every room
+     * @param address        address to listen on, port 0 for any free port
+     * @param rooms          number of rooms, and of tick threads
+     * @param ticksPerSecond ticks per second of every room
+     * @param viewport       area of the level sent to the clients
+     * @throws IOException if the port can not be bound
+     */
+    public GameServer(LevelTemplate template, InetSocketAddress address, int rooms, int ticksPerSecond, Viewport viewport) throws IOException {
+        if (rooms <= 0) {
+            throw new IllegalArgumentException("Room count must be positive");
+        }
+
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Ticks per second must be positive");
+        }
+
+        this.rooms = new Room[rooms];
+        this.threads = new Thread[rooms];
+        for (int i = 0; i < rooms; i++) {
+            this.rooms[i] = new Room(template, i, ticksPerSecond, viewport);
+            this.threads[i] = new Thread(this.rooms[i], "cytale-room-" + i);
+        }
+
+        this.server = ServerSocketChannel.open();
+        this.server.bind(address, 1024);
+        this.acceptor = new Thread(this::accept, "cytale-acceptor");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: GameServer <level> [port] [rooms] [ticksPerSecond]");
+            return;
+        }
+
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        int rooms = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int ticksPerSecond = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TICKS_PER_SECOND;
+
+        GameServer server = new GameServer(LevelTemplate.load(Path.of(args[0])), new InetSocketAddress(port), rooms, ticksPerSecond, DEFAULT_VIEWPORT);
+        server.start();
+        System.out.printf("Listening on port %d with %d room(s) at %d ticks/s%n", server.getPort(), rooms, ticksPerSecond);
+
+        long commands = 0;
+        long bytes = 0;
+        while (true) {
+            Thread.sleep(5000);
+            long nextCommands = server.getCommands();
+            long nextBytes = server.getBytesSent();
+            System.out.printf("sessions=%d commands/s=%.0f out=%.1f KB/s%n", server.getSessionCount(),
+                    (nextCommands - commands) / 5.0, (nextBytes - bytes) / 5.0 / 1024);
+            commands = nextCommands;
+            bytes = nextBytes;
+        }
+    }
+
+    /**
+     * Starts the rooms and accepts connections
+     */
+    public void start() {
+        for (Thread thread : this.threads) {
+            thread.start();
+        }
+        this.acceptor.start();
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel channel = this.server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                this.rooms[this.nextRoom].join(channel);
+                this.nextRoom = (this.nextRoom + 1) % this.rooms.length;
+            }
+        } catch (ClosedChannelException e) {
+            // server closed
+        } catch (IOException e) {
+            System.err.println("Server stopped accepting: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the port the server listens on
+     * @return bound port
+     */
+    public int getPort() {
+        return this.server.socket().getLocalPort();
+    }
+
+    public int getSessionCount() {
+        int sessions = 0;
+        for (Room room : this.rooms) {
+            sessions += room.getSessionCount();
+        }
+        return sessions;
+    }
+
+    /**
+     * Gets the number of moves received since the server started
+     * @return moves received
+     */
+    public long getCommands() {
+        long commands = 0;
+        for (Room room : this.rooms) {
+            commands += room.getCommands();
+        }
+        return commands;
+    }
+
+    public long getBytesSent() {
+        long bytes = 0;
+        for (Room room : this.rooms) {
+            bytes += room.getBytesSent();
+        }
+        return bytes;
+    }
+
+    /**
+     * Stops accepting connections, disconnects every session and waits for the rooms to stop
+     */
+    @Override
+    public void close() throws IOException {
+        this.server.close();
+        for (Room room : this.rooms) {
+            room.stop();
+        }
+        try {
+            for (Thread thread : this.threads) {
+                thread.join();
+            }
+            this.acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
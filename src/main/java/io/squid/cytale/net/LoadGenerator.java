@@ -0,0 +1,277 @@
+package io.squid.cytale.net;
+
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for GameServer, every connection is a client playing random moves
+ * All the connections are driven by a single thread and selector
+ * The latency of a move is the time between sending it and receiving the first board built after it, see Protocol
+ * usage : LoadGenerator <host> <port> <connections> [seconds] [commandsPerSecond]
+ *
+ * @author TopeEstLa
+ */
+public class LoadGenerator {
+
+    private static final int IN_FLIGHT = 1024;
+    private static final int MAX_IN_FLIGHT = IN_FLIGHT - 1;
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final long intervalNanos;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final List<Client> clients = new ArrayList<>();
+
+    private int connected;
+    private long commands;
+    private long boards;
+    private long bytesReceived;
+    private int failures;
+
+    /**
+     * Constructor for LoadGenerator
+     *
+     * @param address           address of the server
+     * @param connections       number of clients
+     * @param commandsPerSecond moves sent by every client per second
+     */
+    public LoadGenerator(InetSocketAddress address, int connections, int commandsPerSecond) {
+        if (connections <= 0 || commandsPerSecond <= 0) {
+            throw new IllegalArgumentException("Connections and commands per second must be positive");
+        }
+
+        this.address = address;
+        this.connections = connections;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / commandsPerSecond;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadGenerator <host> <port> <connections> [seconds] [commandsPerSecond]");
+            return;
+        }
+
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int commandsPerSecond = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        LoadGenerator generator = new LoadGenerator(new InetSocketAddress(args[0], Integer.parseInt(args[1])),
+                Integer.parseInt(args[2]), commandsPerSecond);
+        generator.run(TimeUnit.SECONDS.toNanos(seconds));
+        System.out.println(generator.report(seconds));
+    }
+
+    /**
+     * Opens the connections and plays for the given duration, then closes them
+     * @param durationNanos time to play once the connections are opened
+     */
+    public void run(long durationNanos) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < this.connections; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Client client = new Client(channel, i);
+                // spread the first moves so the clients do not all send on the same instant
+                client.nextSend = System.nanoTime() + this.random.nextLong(this.intervalNanos);
+                channel.connect(this.address);
+                channel.register(selector, SelectionKey.OP_CONNECT, client);
+                this.clients.add(client);
+            }
+
+            long end = System.nanoTime() + durationNanos;
+            while (System.nanoTime() - end < 0) {
+                selector.select(1);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+                this.send(selector);
+            }
+        } finally {
+            for (Client client : this.clients) {
+                client.channel.close();
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Client client = (Client) key.attachment();
+        try {
+            if (key.isConnectable() && client.channel.finishConnect()) {
+                byte[] name = ("bot-" + client.index).getBytes(StandardCharsets.UTF_8);
+                client.out.putShort((short) (3 + name.length));
+                client.out.put(Protocol.HELLO);
+                client.out.put((byte) Protocol.VERSION);
+                client.out.put((byte) name.length);
+                client.out.put(name);
+                key.interestOps(SelectionKey.OP_READ);
+                this.flush(client, key);
+            }
+            if (key.isValid() && key.isReadable()) {
+                this.read(client);
+            }
+            if (key.isValid() && key.isWritable()) {
+                this.flush(client, key);
+            }
+        } catch (IOException e) {
+            this.fail(client, key);
+        }
+    }
+
+    private void read(Client client) throws IOException {
+        ByteBuffer in = client.in;
+        int read = client.channel.read(in);
+        if (read < 0) {
+            throw new IOException("Closed by the server");
+        }
+        this.bytesReceived += read;
+
+        long now = System.nanoTime();
+        in.flip();
+        while (in.remaining() >= Protocol.LENGTH_BYTES) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (in.remaining() < Protocol.LENGTH_BYTES + length) {
+                break;
+            }
+
+            in.position(in.position() + Protocol.LENGTH_BYTES);
+            int end = in.position() + length;
+            byte type = in.get();
+            if (type == Protocol.WELCOME) {
+                client.welcomed = true;
+                this.connected++;
+            } else if (type == Protocol.BOARD) {
+                client.board.apply(in);
+                this.boards++;
+                int sequence = client.board.getLastSequence();
+                while (client.acknowledged < sequence) {
+                    client.acknowledged++;
+                    this.latency.record(now - client.sentAt[client.acknowledged & MAX_IN_FLIGHT]);
+                }
+            } else {
+                throw new ProtocolException("Unknown frame type " + type);
+            }
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void send(Selector selector) {
+        long now = System.nanoTime();
+        for (Client client : this.clients) {
+            if (!client.welcomed || now - client.nextSend < 0 || client.sequence - client.acknowledged >= MAX_IN_FLIGHT) {
+                continue;
+            }
+
+            SelectionKey key = client.channel.keyFor(selector);
+            if (key == null || !key.isValid()) {
+                continue;
+            }
+
+            client.sequence++;
+            client.sentAt[client.sequence & MAX_IN_FLIGHT] = now;
+            client.out.putShort((short) 6);
+            client.out.put(Protocol.MOVE);
+            client.out.put((byte) this.random.nextInt(DIRECTIONS));
+            client.out.putInt(client.sequence);
+            client.nextSend += this.intervalNanos;
+            if (now - client.nextSend > this.intervalNanos) {
+                client.nextSend = now + this.intervalNanos;
+            }
+            this.commands++;
+
+            try {
+                this.flush(client, key);
+            } catch (IOException e) {
+                this.fail(client, key);
+            }
+        }
+    }
+
+    private void flush(Client client, SelectionKey key) throws IOException {
+        client.out.flip();
+        client.channel.write(client.out);
+        client.out.compact();
+        key.interestOps(client.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void fail(Client client, SelectionKey key) {
+        key.cancel();
+        this.failures++;
+        if (client.welcomed) {
+            this.connected--;
+        }
+        try {
+            client.channel.close();
+        } catch (IOException ignored) {
+            // counted as a failure anyway
+        }
+    }
+
+    /**
+     * Gets the results of the last run
+     * @param seconds duration of the run
+     * @return printable report
+     */
+    public String report(double seconds) {
+        return String.format("connections=%d/%d failures=%d commands/s=%.0f boards/s=%.0f in=%.1f KB/s%n"
+                        + "latency p50=%.2fms p99=%.2fms max=%.2fms (%d moves acknowledged)",
+                this.connected, this.connections, this.failures, this.commands / seconds, this.boards / seconds,
+                this.bytesReceived / seconds / 1024,
+                this.latency.getValueAtPercentile(50) / 1e6, this.latency.getValueAtPercentile(99) / 1e6,
+                this.latency.getMax() / 1e6, this.latency.getCount());
+    }
+
+    public int getConnected() {
+        return connected;
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * State of one connection
+     */
+    private static final class Client {
+
+        private final SocketChannel channel;
+        private final int index;
+        private final ByteBuffer in = ByteBuffer.allocate(Protocol.MAX_FRAME + Protocol.LENGTH_BYTES);
+        private final ByteBuffer out = ByteBuffer.allocate(IN_FLIGHT * 8);
+        private final ClientBoard board = new ClientBoard();
+        private final long[] sentAt = new long[IN_FLIGHT];
+
+        private boolean welcomed;
+        private int sequence = -1;
+        private int acknowledged = -1;
+        private long nextSend;
+
+        private Client(SocketChannel channel, int index) {
+            this.channel = channel;
+            this.index = index;
+        }
+    }
+}
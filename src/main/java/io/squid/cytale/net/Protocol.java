@@ -0,0 +1,43 @@
+package io.squid.cytale.net;
+
+/**
+ * Binary protocol between GameServer and its clients, big endian
+ * Frame : u16 length of the type and payload, u8 type, payload
+ *
+ * Client to server
+ * HELLO   : u8 protocol version, u8 name length, name (UTF-8)
+ * MOVE    : u8 Direction ordinal, i32 sequence number
+ *
+ * Server to client
+ * WELCOME : i32 player id, i32 level width, i32 level length
+ * BOARD   : i64 tick, i32 sequence of the last move received, i32 score, i32 health,
+ *           i32 origin X, i32 origin Y (not wrapped), u16 columns, u16 rows, u8 full,
+ *           full  : columns * rows symbols, row by row
+ *           delta : u16 count, count * (u16 cell index, u8 symbol)
+ * A delta is relative to the previous BOARD: the previous board is shifted by the origin change first,
+ * cells which were not visible before are always part of the delta, see ClientBoard
+ *
+ * @author TopeEstLa
+ */
+public final class Protocol {
+
+    public static final int VERSION = 1;
+
+    public static final byte HELLO = 1;
+    public static final byte MOVE = 2;
+
+    public static final byte WELCOME = 1;
+    public static final byte BOARD = 2;
+
+    public static final int LENGTH_BYTES = 2;
+    public static final int MAX_FRAME = 0xFFFF;
+    public static final int MAX_NAME = 64;
+
+    /**
+     * Bytes of a BOARD frame before the symbols
+     */
+    public static final int BOARD_HEADER = LENGTH_BYTES + 1 + 8 + 4 * 6 + 2 * 2 + 1;
+
+    private Protocol() {
+    }
+}
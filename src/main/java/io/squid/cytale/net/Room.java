@@ -0,0 +1,292 @@
+package io.squid.cytale.net;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.entities.PlayerSlot;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.render.FrameBuffer;
+import io.squid.cytale.render.Viewport;
+import io.squid.cytale.tick.InterestArea;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level shared by the sessions of one thread
+ * The thread selects on the sockets of its sessions between two ticks, the moves read are queued on the level,
+ * then every tick the level is ticked and every session is sent its board
+ * The first player of the level is a host player standing at the spawn, see Level.addPlayer
+ * Entities out of the viewport of every player tick less often, see InterestArea
+ *
+ * @author TopeEstLa
+ */
+final class Room implements Runnable {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int MAX_LATE_TICKS = 5;
+    private static final int SPAWN_ATTEMPTS = 64;
+
+    private final Level level;
+    private final Viewport viewport;
+    private final long tickNanos;
+    private final Selector selector;
+    private final SplittableRandom random;
+
+    private final Queue<SocketChannel> joining = new ConcurrentLinkedQueue<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final FrameBuffer frame = new FrameBuffer();
+
+    private volatile boolean running = true;
+    private volatile int sessionCount;
+    private volatile long commands;
+    private volatile long bytesSent;
+
+    Room(LevelTemplate template, long seed, int ticksPerSecond, Viewport viewport) throws IOException {
+        this.level = template.instantiate(new Player("Host", 0, Integer.MAX_VALUE), seed);
+        this.viewport = viewport;
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        this.selector = Selector.open();
+        this.random = new SplittableRandom(seed);
+        this.level.setInterestArea(new InterestArea(Math.max(viewport.getHalfWidth(), viewport.getHalfHeight()), InterestArea.DEFAULT_FAR_INTERVAL));
+
+        if (viewport.columns(this.level) * viewport.rows(this.level) > Protocol.MAX_FRAME - Protocol.BOARD_HEADER) {
+            throw new IllegalArgumentException("Viewport is too large for a frame");
+        }
+    }
+
+    /**
+     * Hands a connected socket over to the room, can be called from any thread
+     */
+    void join(SocketChannel channel) {
+        this.joining.add(channel);
+        this.selector.wakeup();
+    }
+
+    void stop() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        try {
+            while (this.running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    this.selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                } else {
+                    this.selector.selectNow();
+                }
+
+                this.registerJoining();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    this.tick();
+                    nextTick += this.tickNanos;
+                    if (now - nextTick > this.tickNanos * MAX_LATE_TICKS) {
+                        // too late to catch up, drop the missed ticks
+                        nextTick = now + this.tickNanos;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Room stopped: " + e.getMessage());
+        } finally {
+            for (int i = this.sessions.size() - 1; i >= 0; i--) {
+                this.disconnect(this.sessions.get(i));
+            }
+            try {
+                this.selector.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void registerJoining() throws IOException {
+        SocketChannel channel;
+        while ((channel = this.joining.poll()) != null) {
+            Session session = new Session(channel);
+            channel.register(this.selector, SelectionKey.OP_READ, session);
+            this.sessions.add(session);
+            this.sessionCount = this.sessions.size();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isReadable()) {
+                this.read(session);
+            }
+            if (key.isValid() && key.isWritable()) {
+                this.flush(session);
+            }
+        } catch (IOException e) {
+            this.disconnect(session);
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        ByteBuffer in = session.getInput();
+        if (session.getChannel().read(in) < 0) {
+            this.disconnect(session);
+            return;
+        }
+
+        in.flip();
+        while (in.remaining() >= Protocol.LENGTH_BYTES) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (length == 0 || length > in.capacity() - Protocol.LENGTH_BYTES) {
+                throw new ProtocolException("Invalid frame length " + length);
+            }
+
+            if (in.remaining() < Protocol.LENGTH_BYTES + length) {
+                break;
+            }
+
+            in.position(in.position() + Protocol.LENGTH_BYTES);
+            int end = in.position() + length;
+            this.receive(session, in.get(), in, end - in.position());
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void receive(Session session, byte type, ByteBuffer in, int length) throws IOException {
+        switch (type) {
+            case Protocol.HELLO -> {
+                if (session.getSlot() != null || length < 2) {
+                    throw new ProtocolException("Unexpected HELLO");
+                }
+
+                int version = in.get() & 0xFF;
+                int nameLength = in.get() & 0xFF;
+                if (version != Protocol.VERSION || nameLength > Protocol.MAX_NAME || nameLength > length - 2) {
+                    throw new ProtocolException("Invalid HELLO");
+                }
+
+                byte[] name = new byte[nameLength];
+                in.get(name);
+                long spawn = this.randomSpawn();
+                session.setSlot(this.level.addPlayer(new Player(new String(name, StandardCharsets.UTF_8)),
+                        Location.unpackX(spawn), Location.unpackY(spawn)));
+                session.writeWelcome(this.level);
+                this.flush(session);
+            }
+            case Protocol.MOVE -> {
+                PlayerSlot slot = session.getSlot();
+                if (slot == null || length < 5) {
+                    throw new ProtocolException("Unexpected MOVE");
+                }
+
+                int direction = in.get() & 0xFF;
+                if (direction >= DIRECTIONS.length) {
+                    throw new ProtocolException("Invalid direction " + direction);
+                }
+
+                session.setLastSequence(in.getInt());
+                if (!slot.getPlayer().isDead()) {
+                    this.level.queueMove(slot, DIRECTIONS[direction]);
+                }
+                this.commands++;
+            }
+            default -> throw new ProtocolException("Unknown frame type " + type);
+        }
+    }
+
+    private long randomSpawn() {
+        LevelGrid layout = this.level.getLayout();
+        for (int i = 0; i < SPAWN_ATTEMPTS; i++) {
+            int x = this.random.nextInt(this.level.getWidth());
+            int y = this.random.nextInt(this.level.getLength());
+            if ((layout.getFlags(x, y) & LevelGrid.PLAYER_WALKABLE) != 0 && (layout.getFlags(x, y) & LevelGrid.TRAP) == 0) {
+                return Location.pack(x, y);
+            }
+        }
+        return this.level.getDefaultPlayerLocation().toPacked();
+    }
+
+    /**
+     * Ticks the level then sends their board to the sessions which are not still sending the previous one
+     */
+    private void tick() {
+        this.level.tickLevel();
+        for (int i = this.sessions.size() - 1; i >= 0; i--) {
+            Session session = this.sessions.get(i);
+            if (session.getSlot() == null || session.hasPending()) {
+                continue;
+            }
+
+            session.writeBoard(this.level, this.viewport, this.frame);
+            try {
+                this.flush(session);
+            } catch (IOException e) {
+                this.disconnect(session);
+            }
+        }
+    }
+
+    private void flush(Session session) throws IOException {
+        this.bytesSent += session.flush();
+        SelectionKey key = session.getChannel().keyFor(this.selector);
+        if (key != null && key.isValid()) {
+            key.interestOps(session.hasPending() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    private void disconnect(Session session) {
+        if (!this.sessions.remove(session)) {
+            return;
+        }
+
+        this.sessionCount = this.sessions.size();
+        if (session.getSlot() != null) {
+            this.level.removePlayer(session.getSlot());
+        }
+        try {
+            session.getChannel().close();
+        } catch (IOException ignored) {
+            // the session is gone anyway
+        }
+    }
+
+    Level getLevel() {
+        return level;
+    }
+
+    int getSessionCount() {
+        return sessionCount;
+    }
+
+    long getCommands() {
+        return commands;
+    }
+
+    long getBytesSent() {
+        return bytesSent;
+    }
+}
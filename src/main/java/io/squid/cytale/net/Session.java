@@ -0,0 +1,192 @@
+package io.squid.cytale.net;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.entities.PlayerSlot;
+import io.squid.cytale.render.FrameBuffer;
+import io.squid.cytale.render.Viewport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connection of a client to a Room
+ * Keeps the last board sent so the next one can be sent as a delta
+ * Only used by the thread of its room
+ *
+ * @author TopeEstLa
+ */
+final class Session {
+
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(512);
+    private ByteBuffer out = ByteBuffer.allocate(4096);
+
+    private PlayerSlot slot;
+    private int lastSequence = -1;
+
+    private final FrameBuffer sent = new FrameBuffer();
+    private boolean hasSent;
+    private int sentOriginX;
+    private int sentOriginY;
+    private int sentSequence;
+    private int sentScore;
+    private int sentHealth;
+
+    Session(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    ByteBuffer getInput() {
+        return in;
+    }
+
+    PlayerSlot getSlot() {
+        return slot;
+    }
+
+    void setSlot(PlayerSlot slot) {
+        this.slot = slot;
+    }
+
+    void setLastSequence(int lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Queues the WELCOME frame
+     */
+    void writeWelcome(Level level) {
+        this.ensure(Protocol.LENGTH_BYTES + 1 + 3 * Integer.BYTES);
+        this.out.putShort((short) (1 + 3 * Integer.BYTES));
+        this.out.put(Protocol.WELCOME);
+        this.out.putInt(this.slot.getId());
+        this.out.putInt(level.getWidth());
+        this.out.putInt(level.getLength());
+    }
+
+    /**
+     * Queues the BOARD frame of the current tick, as a delta of the previous board when it is smaller
+     * Nothing is queued when neither the board nor the player changed
+     *
+     * @param level    Level of the session
+     * @param viewport area sent to the client
+     * @param frame    scratch frame, reused between sessions
+     */
+    void writeBoard(Level level, Viewport viewport, FrameBuffer frame) {
+        Player player = this.slot.getPlayer();
+        frame.compose(level, viewport, player);
+        int originX = viewport.originX(level, player);
+        int originY = viewport.originY(level, player);
+        int columns = frame.getColumns();
+        int rows = frame.getRows();
+        int cells = columns * rows;
+
+        this.ensure(Protocol.BOARD_HEADER + 2 + cells * 3);
+        int start = this.out.position();
+        this.out.putShort((short) 0);
+        this.out.put(Protocol.BOARD);
+        this.out.putLong(level.getTick());
+        this.out.putInt(this.lastSequence);
+        this.out.putInt(player.getScore());
+        this.out.putInt(player.getHealth());
+        this.out.putInt(originX);
+        this.out.putInt(originY);
+        this.out.putShort((short) columns);
+        this.out.putShort((short) rows);
+        int fullPosition = this.out.position();
+        this.out.put((byte) 0);
+
+        boolean full = !this.hasSent || this.sent.getColumns() != columns || this.sent.getRows() != rows;
+        int changes = 0;
+        if (!full) {
+            int countPosition = this.out.position();
+            this.out.putShort((short) 0);
+            int dx = originX - this.sentOriginX;
+            int dy = originY - this.sentOriginY;
+            for (int row = 0; row < rows && !full; row++) {
+                int previousRow = row + dy;
+                for (int column = 0; column < columns; column++) {
+                    int previousColumn = column + dx;
+                    char symbol = frame.get(column, row);
+                    char previous = previousColumn >= 0 && previousColumn < columns && previousRow >= 0 && previousRow < rows
+                            ? this.sent.get(previousColumn, previousRow) : 0;
+                    if (symbol == previous) {
+                        continue;
+                    }
+
+                    if ((changes + 1) * 3 >= cells) {
+                        full = true;
+                        break;
+                    }
+                    this.out.putShort((short) (row * columns + column));
+                    this.out.put((byte) symbol);
+                    changes++;
+                }
+            }
+
+            if (!full) {
+                if (changes == 0 && this.lastSequence == this.sentSequence && player.getScore() == this.sentScore
+                        && player.getHealth() == this.sentHealth && dx == 0 && dy == 0) {
+                    this.out.position(start);
+                    return;
+                }
+                this.out.putShort(countPosition, (short) changes);
+            }
+        }
+
+        if (full) {
+            this.out.position(fullPosition);
+            this.out.put((byte) 1);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    this.out.put((byte) frame.get(column, row));
+                }
+            }
+        }
+        this.out.putShort(start, (short) (this.out.position() - start - Protocol.LENGTH_BYTES));
+
+        this.sent.copyFrom(frame);
+        this.hasSent = true;
+        this.sentOriginX = originX;
+        this.sentOriginY = originY;
+        this.sentSequence = this.lastSequence;
+        this.sentScore = player.getScore();
+        this.sentHealth = player.getHealth();
+    }
+
+    /**
+     * Writes as much of the queued frames as the socket accepts
+     * @return number of bytes written
+     */
+    int flush() throws IOException {
+        this.out.flip();
+        int written = this.channel.write(this.out);
+        this.out.compact();
+        return written;
+    }
+
+    /**
+     * Checks if queued frames are still waiting for the socket
+     * @return true if a flush is pending
+     */
+    boolean hasPending() {
+        return this.out.position() > 0;
+    }
+
+    private void ensure(int bytes) {
+        if (this.out.remaining() >= bytes) {
+            return;
+        }
+
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(this.out.capacity() * 2, this.out.position() + bytes));
+        this.out.flip();
+        grown.put(this.out);
+        this.out = grown;
+    }
+}
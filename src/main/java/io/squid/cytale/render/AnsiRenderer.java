@@ -0,0 +1,83 @@
+package io.squid.cytale.render;
+
+import io.squid.cytale.entities.Level;
+
+import java.io.PrintStream;
+
+/**
+ * Renderer for ANSI terminals
+ * The first frame clears the screen and draws every cell,
+ * next frames only move the cursor to the cells which changed since the previous frame
+ * After drawing, the cursor is left on the line below the board with the rest of the screen cleared
+ * @author TopeEstLa
+ */
+public class AnsiRenderer implements Renderer {
+
+    private static final String ESC = "\u001B[";
+
+    private final PrintStream out;
+    private final Viewport viewport;
+
+    private final FrameBuffer frame = new FrameBuffer();
+    private final FrameBuffer previous = new FrameBuffer();
+    private final StringBuilder builder = new StringBuilder();
+
+    private boolean drawn;
+
+    /**
+     * Constructor for AnsiRenderer
+     * @param out stream receiving the escape sequences
+     * @param viewport area of the level to draw
+     */
+    public AnsiRenderer(PrintStream out, Viewport viewport) {
+        this.out = out;
+        this.viewport = viewport;
+    }
+
+    @Override
+    public void render(Level level) {
+        this.frame.compose(level, this.viewport);
+        this.builder.setLength(0);
+
+        if (!this.drawn || this.frame.getColumns() != this.previous.getColumns() || this.frame.getRows() != this.previous.getRows()) {
+            this.builder.append(ESC).append("H").append(ESC).append("2J");
+            for (int row = 0; row < this.frame.getRows(); row++) {
+                for (int column = 0; column < this.frame.getColumns(); column++) {
+                    this.builder.append(this.frame.get(column, row)).append(' ');
+                }
+                this.builder.append("\r\n");
+            }
+            this.drawn = true;
+        } else {
+            for (int row = 0; row < this.frame.getRows(); row++) {
+                int lastColumn = -2;
+                for (int column = 0; column < this.frame.getColumns(); column++) {
+                    char symbol = this.frame.get(column, row);
+                    if (symbol == this.previous.get(column, row)) {
+                        continue;
+                    }
+
+                    if (column != lastColumn + 1) {
+                        // terminal rows and columns are 1 based, a cell is 2 characters wide
+                        this.builder.append(ESC).append(row + 1).append(';').append(column * 2 + 1).append('H');
+                    }
+                    this.builder.append(symbol).append(' ');
+                    lastColumn = column;
+                }
+            }
+        }
+
+        this.builder.append(ESC).append(this.frame.getRows() + 1).append(";1H").append(ESC).append('J');
+        this.previous.copyFrom(this.frame);
+
+        this.out.append(this.builder);
+        this.out.flush();
+    }
+
+    /**
+     * Forces the next frame to redraw every cell
+     */
+    public void invalidate() {
+        this.drawn = false;
+    }
+}
@@ -0,0 +1,97 @@
+package io.squid.cytale.render;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.grid.LevelGrid;
+
+/**
+ * Symbols of the cells visible in a viewport, row by row
+ * The buffer is reused between frames and only grows when the viewport does
+ * @author TopeEstLa
+ */
+public class FrameBuffer {
+
+    private char[] cells = new char[0];
+    private int columns;
+    private int rows;
+
+    /**
+     * Fills the buffer with the cells of the level visible in the viewport
+     * Priority : player '1', other players '2', then the first entity of the cell, then the cell symbol
+     * @param level Level to draw
+     * @param viewport Area to draw
+     */
+    public void compose(Level level, Viewport viewport) {
+        this.compose(level, viewport, level.getPlayer());
+    }
+
+    /**
+     * Fills the buffer with the cells of the level visible by a player
+     * Priority : the player '1', other players '2', then the first entity of the cell, then the cell symbol
+     * @param level Level to draw
+     * @param viewport Area to draw, centered on the player
+     * @param player Player looking at the level
+     */
+    public void compose(Level level, Viewport viewport, Player player) {
+        this.columns = viewport.columns(level);
+        this.rows = viewport.rows(level);
+        if (this.cells.length < this.columns * this.rows) {
+            this.cells = new char[this.columns * this.rows];
+        }
+
+        int originX = viewport.originX(level, player);
+        int originY = viewport.originY(level, player);
+        LevelGrid layout = level.getLayout();
+        boolean others = level.getPlayerCount() > 1;
+
+        int index = 0;
+        for (int row = 0; row < this.rows; row++) {
+            int y = level.wrapY(originY + row);
+            for (int column = 0; column < this.columns; column++) {
+                int x = level.wrapX(originX + column);
+                char symbol;
+                if (x == player.getX() && y == player.getY()) {
+                    symbol = '1';
+                } else if (others && level.getPlayerAt(x, y) != null) {
+                    symbol = '2';
+                } else {
+                    Entity entity = level.getEntityAt(x, y);
+                    symbol = entity != null ? entity.getSymbol() : layout.getSymbol(x, y);
+                }
+                this.cells[index++] = symbol;
+            }
+        }
+    }
+
+    /**
+     * Gets the symbol at the given position of the frame
+     * @param column column in the frame
+     * @param row row in the frame
+     * @return symbol of the cell
+     */
+    public char get(int column, int row) {
+        return this.cells[row * this.columns + column];
+    }
+
+    /**
+     * Copies the content of another frame in this one
+     * @param other frame to copy
+     */
+    public void copyFrom(FrameBuffer other) {
+        if (this.cells.length < other.columns * other.rows) {
+            this.cells = new char[other.columns * other.rows];
+        }
+        System.arraycopy(other.cells, 0, this.cells, 0, other.columns * other.rows);
+        this.columns = other.columns;
+        this.rows = other.rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,17 @@
+package io.squid.cytale.render;
+
+import io.squid.cytale.entities.Level;
+
+/**
+ * Draws a level
+ * @author TopeEstLa
+ */
+public interface Renderer {
+
+    /**
+     * Draws the current state of the level
+     * @param level Level to draw
+     */
+    void render(Level level);
+
+}
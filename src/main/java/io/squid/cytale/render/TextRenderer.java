@@ -0,0 +1,46 @@
+package io.squid.cytale.render;
+
+import io.squid.cytale.entities.Level;
+
+import java.io.PrintStream;
+
+/**
+ * Renderer printing the whole viewport as plain text
+ * each cell is followed by a space, each row by a line break
+ * The frame is composed in memory and written to the stream at once
+ * @author TopeEstLa
+ */
+public class TextRenderer implements Renderer {
+
+    private final PrintStream out;
+    private final Viewport viewport;
+
+    private final FrameBuffer frame = new FrameBuffer();
+    private final StringBuilder builder = new StringBuilder();
+
+    /**
+     * Constructor for TextRenderer
+     * @param out stream receiving the frames
+     * @param viewport area of the level to draw
+     */
+    public TextRenderer(PrintStream out, Viewport viewport) {
+        this.out = out;
+        this.viewport = viewport;
+    }
+
+    @Override
+    public void render(Level level) {
+        this.frame.compose(level, this.viewport);
+
+        this.builder.setLength(0);
+        for (int row = 0; row < this.frame.getRows(); row++) {
+            for (int column = 0; column < this.frame.getColumns(); column++) {
+                this.builder.append(this.frame.get(column, row)).append(' ');
+            }
+            this.builder.append(System.lineSeparator());
+        }
+
+        this.out.append(this.builder);
+        this.out.flush();
+    }
+}
@@ -0,0 +1,99 @@
+package io.squid.cytale.render;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+
+/**
+ * Area of the level drawn by a renderer
+ * centered on the player, cropped to (2 * halfWidth + 1) x (2 * halfHeight + 1) cells
+ * Levels smaller than the viewport are drawn entirely
+ * @author TopeEstLa
+ */
+public final class Viewport {
+
+    /**
+     * Viewport drawing the whole level
+     */
+    public static final Viewport FULL = new Viewport(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final int halfWidth;
+    private final int halfHeight;
+
+    /**
+     * Constructor for Viewport
+     * @param halfWidth number of columns drawn on each side of the player
+     * @param halfHeight number of rows drawn on each side of the player
+     */
+    public Viewport(int halfWidth, int halfHeight) {
+        if (halfWidth < 0 || halfHeight < 0) {
+            throw new IllegalArgumentException("Viewport size must be non-negative");
+        }
+
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+    }
+
+    /**
+     * Gets the number of columns drawn for the level
+     * @param level Level to draw
+     * @return number of columns
+     */
+    public int columns(Level level) {
+        return this.halfWidth >= level.getWidth() / 2 ? level.getWidth() : 2 * this.halfWidth + 1;
+    }
+
+    /**
+     * Gets the number of rows drawn for the level
+     * @param level Level to draw
+     * @return number of rows
+     */
+    public int rows(Level level) {
+        return this.halfHeight >= level.getLength() / 2 ? level.getLength() : 2 * this.halfHeight + 1;
+    }
+
+    /**
+     * Gets the X coordinate of the first column, may be out of bounds and must be wrapped
+     * @param level Level to draw
+     * @return X coordinate of the left column
+     */
+    public int originX(Level level) {
+        return originX(level, level.getPlayer());
+    }
+
+    /**
+     * Gets the X coordinate of the first column of a viewport centered on a player
+     * @param level Level to draw
+     * @param player Player in the center of the viewport
+     * @return X coordinate of the left column
+     */
+    public int originX(Level level, Player player) {
+        return columns(level) == level.getWidth() ? 0 : player.getX() - this.halfWidth;
+    }
+
+    /**
+     * Gets the Y coordinate of the first row, may be out of bounds and must be wrapped
+     * @param level Level to draw
+     * @return Y coordinate of the top row
+     */
+    public int originY(Level level) {
+        return originY(level, level.getPlayer());
+    }
+
+    /**
+     * Gets the Y coordinate of the first row of a viewport centered on a player
+     * @param level Level to draw
+     * @param player Player in the center of the viewport
+     * @return Y coordinate of the top row
+     */
+    public int originY(Level level, Player player) {
+        return rows(level) == level.getLength() ? 0 : player.getY() - this.halfHeight;
+    }
+
+    public int getHalfWidth() {
+        return halfWidth;
+    }
+
+    public int getHalfHeight() {
+        return halfHeight;
+    }
+}
@@ -0,0 +1,148 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.PlayerSlot;
+
+import java.util.Arrays;
+
+/**
+ * Area of interest of the players of a level
+ * Entities within radius cells of a player, going around the world, tick every tick,
+ * the other ones only tick every farInterval ticks, or sleep until a player comes close when farInterval is 0
+ * The far entities are staggered by their index so they do not all tick on the same tick
+ * The area is tracked per bucket of 2^BUCKET_SHIFT cells, so entities up to a bucket further than radius may tick as near ones
+ * Only the bucket window of each living player is kept, memory scales with the players and not the world size
+ * Updated once per tick by Level.tickLevel, then read concurrently by the tick schedulers
+ * A level played with an interest area plays differently, recordings must be replayed with the same one
+ *
+ * @author TopeEstLa
+ */
+public class InterestArea {
+
+    public static final int BUCKET_SHIFT = 4;
+    public static final int DEFAULT_FAR_INTERVAL = 8;
+
+    // per player, two ranges of column buckets then two ranges of row buckets, the second range of an axis is used by the wrap
+    private static final int WINDOW_SIZE = 8;
+
+    private final int radius;
+    private final int farInterval;
+
+    private int[] windows = new int[0];
+    private int windowCount;
+    private long tick;
+
+    /**
+     * Constructor for InterestArea
+     *
+     * @param radius      distance in cells, on both axes, within which entities tick every tick
+     * @param farInterval ticks between two ticks of a far entity, 0 to make them sleep
+     */
+    public InterestArea(int radius, int farInterval) {
+        if (radius < 0 || farInterval < 0) {
+            throw new IllegalArgumentException("Radius and far interval must be non-negative");
+        }
+
+        this.radius = radius;
+        this.farInterval = farInterval;
+    }
+
+    /**
+     * Stores the buckets within radius of every living player of the level
+     *
+     * @param level Level about to tick
+     */
+    public void update(Level level) {
+        this.tick = level.getTick();
+        this.windowCount = 0;
+        for (int id = 0; id < level.getSlotCount(); id++) {
+            PlayerSlot slot = level.getPlayerSlot(id);
+            if (slot.isRemoved() || slot.getPlayer().isDead()) {
+                continue;
+            }
+
+            int offset = this.windowCount * WINDOW_SIZE;
+            if (offset + WINDOW_SIZE > this.windows.length) {
+                this.windows = Arrays.copyOf(this.windows, Math.max(WINDOW_SIZE, this.windows.length * 2));
+            }
+            this.window(slot.getPlayer().getX(), level.getWidth(), offset);
+            this.window(slot.getPlayer().getY(), level.getLength(), offset + WINDOW_SIZE / 2);
+            this.windowCount++;
+        }
+    }
+
+    /**
+     * Writes the bucket ranges of an axis within radius of a coordinate, an unused range is written empty
+     */
+    private void window(int center, int size, int offset) {
+        int[] windows = this.windows;
+        windows[offset + 2] = 1;
+        windows[offset + 3] = 0;
+        if (2L * this.radius + 1 >= size) {
+            windows[offset] = 0;
+            windows[offset + 1] = (size - 1) >> BUCKET_SHIFT;
+            return;
+        }
+
+        // radius is less than half of size here, so the bounds fit an int
+        int from = center - this.radius;
+        int to = center + this.radius;
+        if (from < 0) {
+            windows[offset + 2] = (from + size) >> BUCKET_SHIFT;
+            windows[offset + 3] = (size - 1) >> BUCKET_SHIFT;
+            from = 0;
+        }
+        if (to >= size) {
+            windows[offset + 2] = 0;
+            windows[offset + 3] = (to - size) >> BUCKET_SHIFT;
+            to = size - 1;
+        }
+        windows[offset] = from >> BUCKET_SHIFT;
+        windows[offset + 1] = to >> BUCKET_SHIFT;
+    }
+
+    /**
+     * Checks if a cell is within the area of interest of a player
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @return true if the cell is near a player
+     */
+    public boolean isNear(int x, int y) {
+        int column = x >> BUCKET_SHIFT;
+        int row = y >> BUCKET_SHIFT;
+        for (int offset = 0; offset < this.windowCount * WINDOW_SIZE; offset += WINDOW_SIZE) {
+            if (this.inside(column, offset) && this.inside(row, offset + WINDOW_SIZE / 2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean inside(int bucket, int offset) {
+        int[] windows = this.windows;
+        return (bucket >= windows[offset] && bucket <= windows[offset + 1])
+                || (bucket >= windows[offset + 2] && bucket <= windows[offset + 3]);
+    }
+
+    /**
+     * Checks if an entity ticks this tick
+     * @param x X coordinate of the entity
+     * @param y Y coordinate of the entity
+     * @param index index of the entity in the entities ticked, see Level.getAwakeEntities
+     * @return true if the entity is near a player or its reduced tick has come
+     */
+    public boolean shouldTick(int x, int y, int index) {
+        if (this.isNear(x, y)) {
+            return true;
+        }
+        return this.farInterval != 0 && (this.tick + index) % this.farInterval == 0;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getFarInterval() {
+        return farInterval;
+    }
+}
@@ -0,0 +1,70 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.entities.MonsterStore;
+import io.squid.cytale.entities.MovingEntity;
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.util.LongHashSet;
+
+/**
+ * Applies planned moves in entity order
+ * A cell can only be entered by one entity per tick, the first one to claim it wins
+ * Cells entered by the monsters of the store during the tick are already claimed, they tick first
+ * Not thread safe, moves are applied on the ticking thread
+ *
+ * @author TopeEstLa
+ */
+class MoveResolver {
+
+    private final LongHashSet claimed = new LongHashSet(1024);
+
+    /**
+     * Forgets the claims of the previous tick
+     */
+    void begin() {
+        this.claimed.clear();
+    }
+
+    /**
+     * Applies a planned move if the target cell was not claimed yet during this tick
+     *
+     * @param level Level of the entity
+     * @param entity Entity which planned the move
+     * @param target target location packed with Location.pack
+     */
+    void apply(Level level, MovingEntity entity, long target) {
+        int oldX = entity.getX();
+        int oldY = entity.getY();
+        if (target == Location.pack(oldX, oldY)) {
+            return;
+        }
+        MonsterStore store = level.getMonsterStore();
+        if ((store != null && store.isClaimed(Location.unpackX(target), Location.unpackY(target))) || !this.claimed.add(target)) {
+            return;
+        }
+
+        entity.applyMove(target);
+        level.getEntityIndex().move(entity, oldX, oldY);
+        if (level.getEvents().wants(EventType.ENTITY_MOVED)) {
+            level.getEvents().publish(EventType.ENTITY_MOVED, level.getTick(), entity.getX(), entity.getY(), entity, Location.pack(oldX, oldY));
+        }
+    }
+
+    /**
+     * Ticks an entity which does not plan its moves
+     *
+     * @param level Level of the entity
+     * @param entity Entity to tick
+     */
+    void tick(Level level, Entity entity) {
+        int oldX = entity.getX();
+        int oldY = entity.getY();
+        entity.tick();
+        level.getEntityIndex().move(entity, oldX, oldY);
+        if ((entity.getX() != oldX || entity.getY() != oldY) && level.getEvents().wants(EventType.ENTITY_MOVED)) {
+            level.getEvents().publish(EventType.ENTITY_MOVED, level.getTick(), entity.getX(), entity.getY(), entity, Location.pack(oldX, oldY));
+        }
+    }
+}
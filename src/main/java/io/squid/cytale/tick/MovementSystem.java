@@ -0,0 +1,147 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.entities.MonsterStore;
+import io.squid.cytale.entities.PlayerSlot;
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.metrics.Metrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ticks the monsters of a MonsterStore, following the rules of TickScheduler
+ * 1. the moves are planned into an array of directions, by ranges of monsters in parallel on a ForkJoinPool
+ * 2. the moves are applied in index order on the calling thread, the first monster to claim a cell enters it
+ * 3. the attacks of the chasing monsters and the ENTITY_MOVED events follow, for the monsters which moved only
+ * The steps walk the arrays of the store, no Entity is created unless an event or an attack needs one
+ * Monsters outside the active area of the layout, sleeping outside the interest area or dormant are skipped
+ * The whole tick of the store is recorded as the cost of MonsterStore when metrics are enabled
+ * Stores with less than parallelThreshold monsters, or pools of a single thread, are planned sequentially
+ *
+ * @author TopeEstLa
+ */
+public class MovementSystem {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16384;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private int[] directions = new int[0];
+    private int[] moved = new int[0];
+
+    /**
+     * Constructor for MovementSystem
+     * Uses the common pool
+     */
+    public MovementSystem() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor for MovementSystem
+     *
+     * @param pool              pool planning the moves
+     * @param parallelThreshold minimum number of monsters to plan in parallel, also the size of a task
+     */
+    public MovementSystem(ForkJoinPool pool, int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be positive");
+        }
+
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Ticks every monster of the store once
+     * The cells entered stay claimed until the next tick, see MonsterStore.isClaimed
+     *
+     * @param level Level owning the store
+     */
+    public void tick(Level level) {
+        long start = Metrics.start();
+        MonsterStore store = level.getMonsterStore();
+        int count = store.size();
+        store.releaseClaims();
+        if (this.directions.length < count) {
+            this.directions = new int[count];
+            this.moved = new int[count];
+        }
+
+        if (count < this.parallelThreshold || this.pool.getParallelism() < 2) {
+            store.planMoves(0, count, level.getTick(), level.getInterestArea(), this.directions);
+        } else {
+            this.pool.invoke(new PlanTask(level, store, 0, count));
+        }
+        int movedCount = store.applyMoves(count, this.directions, this.moved);
+
+        // a second pass over the monsters which moved, in index order, only when something must happen on arrival
+        boolean published = level.getEvents().wants(EventType.ENTITY_MOVED);
+        if (published || store.getChasingCount() > 0) {
+            for (int i = 0; i < movedCount; i++) {
+                int index = this.moved[i];
+                int x = store.getX(index);
+                int y = store.getY(index);
+                if (store.isChasing(index)) {
+                    PlayerSlot reached = level.getPlayerAt(x, y);
+                    if (reached != null) {
+                        level.attackPlayer(store.get(index), reached);
+                    }
+                }
+                if (published) {
+                    int direction = this.directions[index];
+                    long from = Location.pack(level.stepX(x, -MonsterStore.getStepX(direction)), level.stepY(y, -MonsterStore.getStepY(direction)));
+                    level.getEvents().publish(EventType.ENTITY_MOVED, level.getTick(), x, y, store.get(index), from);
+                }
+            }
+        }
+        Metrics.stopEntity(MonsterStore.class, start);
+
+        if (Metrics.ENABLED) {
+            int skipped = 0;
+            int dormant = 0;
+            for (int i = 0; i < count; i++) {
+                if (this.directions[i] == MonsterStore.SKIPPED) {
+                    skipped++;
+                } else if (this.directions[i] == MonsterStore.DORMANT) {
+                    dormant++;
+                }
+            }
+            Metrics.add(Metrics.Counter.ENTITY_TICKS, count - skipped - dormant);
+            Metrics.add(Metrics.Counter.SKIPPED_ENTITIES, skipped);
+            Metrics.add(Metrics.Counter.DORMANT_ENTITIES, dormant);
+        }
+    }
+
+    /**
+     * Plans the moves of a range of monsters, split in two until parallelThreshold monsters are left
+     */
+    private final class PlanTask extends RecursiveAction {
+
+        private final Level level;
+        private final MonsterStore store;
+        private final int from;
+        private final int to;
+
+        private PlanTask(Level level, MonsterStore store, int from, int to) {
+            this.level = level;
+            this.store = store;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= parallelThreshold) {
+                this.store.planMoves(this.from, this.to, this.level.getTick(), this.level.getInterestArea(), directions);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new PlanTask(this.level, this.store, this.from, middle), new PlanTask(this.level, this.store, middle, this.to));
+        }
+    }
+}
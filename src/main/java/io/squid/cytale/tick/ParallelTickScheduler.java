@@ -0,0 +1,158 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.MovingEntity;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ticks the entities on a ForkJoinPool
+ * 1. entities are partitioned in horizontal bands of the level
+ * 2. every band plans the moves of its MovingEntity in parallel, each entity drawing from its own random generator
+ * 3. the planned moves are applied in entity order on the calling thread, see MoveResolver
+ * Other entities are ticked during step 3, entities outside the active area of the layout are skipped,
+ * as well as the entities sleeping outside the interest area of the level
+ * Levels with less than parallelThreshold entities, or pools of a single thread, are ticked sequentially
+ * Entity costs are not measured per entity class since the moves are planned concurrently, see Metrics
+ *
+ * @author TopeEstLa
+ */
+public class ParallelTickScheduler implements TickScheduler {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+
+    private static final long NO_PLAN = Long.MIN_VALUE;
+    private static final long INACTIVE = Long.MIN_VALUE + 1;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int bandCount;
+
+    private final MoveResolver resolver = new MoveResolver();
+    private final SequentialTickScheduler sequential = new SequentialTickScheduler();
+
+    private long[] plans = new long[0];
+    private int[][] bands;
+    private int[] bandSizes;
+
+    /**
+     * Constructor for ParallelTickScheduler
+     * Uses the common pool
+     */
+    public ParallelTickScheduler() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor for ParallelTickScheduler
+     *
+     * @param pool pool planning the moves
+     * @param parallelThreshold minimum number of entities to tick in parallel
+     */
+    public ParallelTickScheduler(ForkJoinPool pool, int parallelThreshold) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.bandCount = pool.getParallelism() * 4;
+        this.bands = new int[this.bandCount][16];
+        this.bandSizes = new int[this.bandCount];
+    }
+
+    @Override
+    public void tick(Level level) {
+        List<Entity> entities = level.getAwakeEntities();
+        int count = entities.size();
+        if (count < this.parallelThreshold || this.pool.getParallelism() < 2) {
+            this.sequential.tick(level);
+            return;
+        }
+
+        if (this.plans.length < count) {
+            this.plans = new long[count];
+        }
+
+        this.partition(level, entities);
+        this.pool.invoke(new PlanTask(level.getLayout(), level.getInterestArea(), entities, 0, this.bandCount));
+
+        this.resolver.begin();
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(i);
+            if (this.plans[i] == INACTIVE) {
+                skipped++;
+                continue;
+            }
+
+            if (this.plans[i] != NO_PLAN) {
+                this.resolver.apply(level, (MovingEntity) entity, this.plans[i]);
+            } else {
+                this.resolver.tick(level, entity);
+            }
+        }
+        Metrics.add(Metrics.Counter.ENTITY_TICKS, count - skipped);
+        Metrics.add(Metrics.Counter.SKIPPED_ENTITIES, skipped);
+    }
+
+    private void partition(Level level, List<Entity> entities) {
+        Arrays.fill(this.bandSizes, 0);
+        int bandHeight = Math.max(1, (level.getLength() + this.bandCount - 1) / this.bandCount);
+        for (int i = 0; i < entities.size(); i++) {
+            int band = Math.min(this.bandCount - 1, entities.get(i).getY() / bandHeight);
+            int size = this.bandSizes[band];
+            if (size == this.bands[band].length) {
+                this.bands[band] = Arrays.copyOf(this.bands[band], size * 2);
+            }
+            this.bands[band][size] = i;
+            this.bandSizes[band] = size + 1;
+        }
+    }
+
+    private void plan(LevelGrid layout, InterestArea interest, List<Entity> entities, int band) {
+        int[] members = this.bands[band];
+        for (int i = 0; i < this.bandSizes[band]; i++) {
+            int index = members[i];
+            Entity entity = entities.get(index);
+            if (!layout.isActive(entity.getX(), entity.getY()) || (interest != null && !interest.shouldTick(entity.getX(), entity.getY(), index))) {
+                this.plans[index] = INACTIVE;
+            } else {
+                this.plans[index] = entity instanceof MovingEntity moving ? moving.planMove() : NO_PLAN;
+            }
+        }
+    }
+
+    /**
+     * Plans the moves of a range of bands, split in two until a single band is left
+     */
+    private final class PlanTask extends RecursiveAction {
+
+        private final LevelGrid layout;
+        private final InterestArea interest;
+        private final List<Entity> entities;
+        private final int from;
+        private final int to;
+
+        private PlanTask(LevelGrid layout, InterestArea interest, List<Entity> entities, int from, int to) {
+            this.layout = layout;
+            this.interest = interest;
+            this.entities = entities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                plan(this.layout, this.interest, this.entities, this.from);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new PlanTask(this.layout, this.interest, this.entities, this.from, middle), new PlanTask(this.layout, this.interest, this.entities, middle, this.to));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.MovingEntity;
+import io.squid.cytale.grid.LevelGrid;
+import io.squid.cytale.metrics.Metrics;
+
+import java.util.List;
+
+/**
+ * Ticks the entities one after the other on the calling thread
+ * Entities outside the active area of the layout, or sleeping outside the interest area of the level, are skipped
+ * The cost of every entity is recorded per entity class when metrics are enabled
+ *
+ * @author TopeEstLa
+ */
+public class SequentialTickScheduler implements TickScheduler {
+
+    private final MoveResolver resolver = new MoveResolver();
+
+    @Override
+    public void tick(Level level) {
+        List<Entity> entities = level.getAwakeEntities();
+        LevelGrid layout = level.getLayout();
+        InterestArea interest = level.getInterestArea();
+        this.resolver.begin();
+        int skipped = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!layout.isActive(entity.getX(), entity.getY()) || (interest != null && !interest.shouldTick(entity.getX(), entity.getY(), i))) {
+                skipped++;
+                continue;
+            }
+
+            long start = Metrics.start();
+            if (entity instanceof MovingEntity moving) {
+                this.resolver.apply(level, moving, moving.planMove());
+            } else {
+                this.resolver.tick(level, entity);
+            }
+            Metrics.stopEntity(entity.getClass(), start);
+        }
+        Metrics.add(Metrics.Counter.ENTITY_TICKS, entities.size() - skipped);
+        Metrics.add(Metrics.Counter.SKIPPED_ENTITIES, skipped);
+    }
+}
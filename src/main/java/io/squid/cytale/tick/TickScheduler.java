@@ -0,0 +1,24 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Level;
+
+/**
+ * Strategy ticking the entities of a level
+ * Every scheduler follows the same rules :
+ * entities tick in the order of Level.getEntities, dormant entities are not ticked, see Level.getAwakeEntities,
+ * the monsters of the monster store tick before them, see MovementSystem,
+ * when several MovingEntity target the same cell during a tick, only the first one moves
+ *
+ * @author TopeEstLa
+ */
+public interface TickScheduler {
+
+    /**
+     * Ticks every entity of the level once
+     * and keeps the entity index of the level up to date
+     *
+     * @param level Level to tick
+     */
+    void tick(Level level);
+
+}
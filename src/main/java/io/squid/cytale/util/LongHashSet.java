@@ -0,0 +1,120 @@
+package io.squid.cytale.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of primitive longs
+ * No boxing, clear keeps the table so a set reused every tick stops allocating once it reached its size
+ * Long.MIN_VALUE can not be stored
+ *
+ * @author TopeEstLa
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] table;
+    private int size;
+
+    /**
+     * Constructor for LongHashSet
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * Constructor for LongHashSet
+     * @param expectedSize number of values the set should hold without growing
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.table = new long[capacity];
+        Arrays.fill(this.table, EMPTY);
+    }
+
+    /**
+     * Adds a value to the set
+     * @param value value to add
+     * @return true if the value was not already in the set
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE can not be stored");
+        }
+
+        int mask = this.table.length - 1;
+        int slot = hash(value) & mask;
+        while (this.table[slot] != EMPTY) {
+            if (this.table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        this.table[slot] = value;
+        if (++this.size * 2 > this.table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the set holds a value
+     * @param value value to look for
+     * @return true if the value is in the set
+     */
+    public boolean contains(long value) {
+        int mask = this.table.length - 1;
+        int slot = hash(value) & mask;
+        while (this.table[slot] != EMPTY) {
+            if (this.table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes every value, the table keeps its capacity
+     */
+    public void clear() {
+        if (this.size > 0) {
+            Arrays.fill(this.table, EMPTY);
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Gets the number of values in the set
+     * @return size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = this.table;
+        this.table = new long[old.length * 2];
+        Arrays.fill(this.table, EMPTY);
+
+        int mask = this.table.length - 1;
+        for (long value : old) {
+            if (value == EMPTY) {
+                continue;
+            }
+
+            int slot = hash(value) & mask;
+            while (this.table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            this.table[slot] = value;
+        }
+    }
+
+    private static int hash(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return (int) (value ^ (value >>> 32));
+    }
+}
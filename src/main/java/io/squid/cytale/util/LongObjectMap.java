@@ -0,0 +1,178 @@
+package io.squid.cytale.util;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Open addressing map from primitive longs to objects
+ * Lookups do not box the key, removals use backward shift deletion so no tombstone is left
+ * Long.MIN_VALUE can not be used as a key
+ *
+ * @param <V> type of the values
+ * @author TopeEstLa
+ */
+public class LongObjectMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Constructor for LongObjectMap
+     */
+    public LongObjectMap() {
+        this.keys = new long[16];
+        this.values = new Object[16];
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Gets the value of a key
+     * @param key key to look for
+     * @return the value, null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return (V) this.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Associates a value to a key
+     * @param key key of the value
+     * @param value value, not null
+     * @return the previous value of the key, null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE can not be used as a key");
+        }
+
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                V previous = (V) this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size * 2 > this.keys.length) {
+            this.resize(this.keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes a key from the map
+     * @param key key to remove
+     * @return the removed value, null if the key was not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            return null;
+        }
+
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != key) {
+            if (this.keys[slot] == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        V removed = (V) this.values[slot];
+        this.size--;
+
+        // shift back the following entries of the cluster which would not be found anymore
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (this.keys[next] != EMPTY) {
+            int home = hash(this.keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.keys[hole] = this.keys[next];
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.keys[hole] = EMPTY;
+        this.values[hole] = null;
+        return removed;
+    }
+
+    /**
+     * Runs the action for every entry, the map must not be modified by the action
+     * @param action action receiving the key and the value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Long, V> action) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != EMPTY) {
+                action.accept(this.keys[i], (V) this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies the keys of the map
+     * @return keys in no particular order
+     */
+    public long[] keys() {
+        long[] copy = new long[this.size];
+        int index = 0;
+        for (long key : this.keys) {
+            if (key != EMPTY) {
+                copy[index++] = key;
+            }
+        }
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        Arrays.fill(this.keys, EMPTY);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (this.keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = oldKeys[i];
+            this.values[slot] = oldValues[i];
+        }
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
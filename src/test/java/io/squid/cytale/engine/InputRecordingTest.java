@@ -0,0 +1,109 @@
+package io.squid.cytale.engine;
+
+import io.squid.cytale.entities.Entity;
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Monster;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.enums.Behaviour;
+import io.squid.cytale.enums.Direction;
+import io.squid.cytale.level.LevelTemplate;
+import io.squid.cytale.tick.InterestArea;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author TopeEstLa
+ */
+class InputRecordingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRandomWalk() throws IOException {
+        assertReplaysLikeLive(Behaviour.RANDOM_WALK, null, 24);
+    }
+
+    @Test
+    void replaysChase() throws IOException {
+        assertReplaysLikeLive(Behaviour.CHASE, null, 24);
+    }
+
+    @Test
+    void replaysInterestArea() throws IOException {
+        assertReplaysLikeLive(Behaviour.RANDOM_WALK, new InterestArea(2, 0), 96);
+    }
+
+    private void assertReplaysLikeLive(Behaviour behaviour, InterestArea interest, int size) throws IOException {
+        Path file = this.writeLevel(size);
+        long seed = 1234L;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(bytes, seed, file.toString(), 5, 0, behaviour, interest);
+
+        Level level = LevelTemplate.load(file).instantiate(new Player("Live"), seed);
+        for (Entity entity : level.getEntities()) {
+            ((Monster) entity).setBehaviour(behaviour);
+        }
+        if (interest != null) {
+            level.setInterestArea(interest);
+        }
+        level.setInputRecorder(recorder);
+        GameResult live = HeadlessEngine.play(level, moves(300));
+        recorder.close();
+
+        InputRecording recording = InputRecording.read(new ByteArrayInputStream(bytes.toByteArray()));
+        GameResult replay = recording.replay(false);
+        assertEquals(behaviour, recording.getBehaviour());
+        assertEquals(interest == null ? -1 : interest.getRadius(), recording.getInterestRadius());
+        assertEquals(live.outcome(), replay.outcome());
+        assertEquals(live.ticks(), replay.ticks());
+        assertEquals(live.health(), replay.health());
+        assertEquals(live.score(), replay.score());
+    }
+
+    private Path writeLevel(int size) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder map = new StringBuilder();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int roll = random.nextInt(100);
+                if (x == 0 && y == 0) {
+                    map.append('1');
+                } else if (roll < 8) {
+                    map.append('#');
+                } else if (roll < 20) {
+                    map.append('R');
+                } else if (roll < 40) {
+                    map.append('.');
+                } else {
+                    map.append(' ');
+                }
+            }
+            map.append('\n');
+        }
+        Path file = this.directory.resolve("level.txt");
+        Files.writeString(file, map);
+        return file;
+    }
+
+    private static List<Direction> moves(int count) {
+        SplittableRandom random = new SplittableRandom(3);
+        Direction[] directions = Direction.values();
+        List<Direction> moves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            moves.add(directions[random.nextInt(directions.length)]);
+        }
+        return moves;
+    }
+}
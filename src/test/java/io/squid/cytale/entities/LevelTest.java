@@ -0,0 +1,36 @@
+package io.squid.cytale.entities;
+
+import io.squid.cytale.event.EventType;
+import io.squid.cytale.grid.PackedLevelGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author TopeEstLa
+ */
+class LevelTest {
+
+    @Test
+    void deadPlayersAreNotAttacked() {
+        Level level = new Level(new PackedLevelGrid(16, 16), 1, 1, new Player("Alive", 0, 5), 1);
+        PlayerSlot dead = level.addPlayer(new Player("Dead", 0, 1), 8, 8);
+        level.setPlayerLocation(dead, 3, 3);
+        Monster monster = new Monster(level, 1, new Location(3, 4));
+        List<EventType> events = new ArrayList<>();
+        level.getEvents().subscribe(event -> events.add(event.getType()), EventType.PLAYER_DAMAGED, EventType.PLAYER_ATTACKED);
+
+        level.attackPlayer(monster, dead);
+        level.attackPlayer(monster, dead);
+        level.attackPlayer(monster, level.getPlayerSlot(0));
+        level.getEvents().dispatch(level.getTick());
+
+        assertEquals(0, dead.getPlayer().getHealth());
+        assertEquals(8, dead.getPlayer().getX());
+        assertEquals(List.of(EventType.PLAYER_DAMAGED, EventType.PLAYER_ATTACKED, EventType.PLAYER_DAMAGED, EventType.PLAYER_ATTACKED), events);
+        assertEquals(4, level.getPlayer().getHealth());
+    }
+}
@@ -0,0 +1,64 @@
+package io.squid.cytale.entities;
+
+import io.squid.cytale.grid.ChunkedLevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author TopeEstLa
+ */
+class MonsterStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void walksDenseLevel() {
+        assertWalks(new Level(new PackedLevelGrid(64, 64), 5, 5, new Player("Player", 0, 1000), 1));
+    }
+
+    @Test
+    void walksMaximumWorld() {
+        int size = ChunkedLevelGrid.MAX_SIZE;
+        ChunkedLevelGrid grid = new ChunkedLevelGrid(size, size, 2, (chunkX, chunkY, chunk) -> {
+        }, this.directory);
+        assertWalks(new Level(grid, 5, 5, new Player("Player", 0, 1000), 1));
+    }
+
+    private static void assertWalks(Level level) {
+        MonsterStore store = level.enableMonsterStore();
+        store.add(7, 7, 1);
+        store.add(7, 8, 1);
+        store.add(level.getWidth() - 1, 5, 1);
+
+        int[] xs = new int[store.size()];
+        int[] ys = new int[store.size()];
+        for (int tick = 0; tick < 50; tick++) {
+            for (int i = 0; i < store.size(); i++) {
+                xs[i] = store.getX(i);
+                ys[i] = store.getY(i);
+            }
+            level.tickLevel();
+
+            for (int i = 0; i < store.size(); i++) {
+                int x = store.getX(i);
+                int y = store.getY(i);
+                int dx = Math.min(Math.abs(x - xs[i]), level.getWidth() - Math.abs(x - xs[i]));
+                int dy = Math.min(Math.abs(y - ys[i]), level.getLength() - Math.abs(y - ys[i]));
+                assertTrue(dx + dy <= 1, "monster " + i + " jumped");
+                if (dx + dy == 1) {
+                    assertTrue(store.isClaimed(x, y));
+                }
+                int first = store.firstAt(x, y);
+                assertTrue(first >= 0 && first <= i);
+            }
+        }
+        assertEquals(3, store.size());
+    }
+}
@@ -0,0 +1,72 @@
+package io.squid.cytale.grid;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * @author TopeEstLa
+ */
+class CoinIndexTest {
+
+    @Test
+    void denseRegionCounts() {
+        CoinIndex index = new CoinIndex(100, 70);
+        assertRegionCounts(index);
+    }
+
+    @Test
+    void sparseRegionCounts() {
+        int size = CoinIndex.REGION_SIZE * 2048;
+        CoinIndex index = new CoinIndex(size, size);
+        assertRegionCounts(index);
+        assertEquals(0, index.getRemainingInRegion(2000, 2000));
+    }
+
+    @Test
+    void copyKeepsRegionCounts() {
+        CoinIndex index = new CoinIndex(100, 70);
+        index.coinAdded(40, 40);
+        index.coinAdded(41, 40);
+        CoinIndex copy = new CoinIndex(index);
+        assertEquals(0, copy.getCollected());
+        copy.coinRemoved(40, 40);
+
+        assertEquals(2, index.getRemainingAround(40, 40));
+        assertEquals(1, copy.getRemainingAround(40, 40));
+        assertEquals(1, copy.getCollected());
+    }
+
+    @Test
+    void packedGridUpdatesRegions() {
+        PackedLevelGrid grid = new PackedLevelGrid(64, 64);
+        grid.setCoin(1, 1, true);
+        grid.setCoin(40, 1, true);
+        grid.setCoin(40, 2, true);
+        grid.setCoin(40, 2, false);
+
+        CoinIndex index = grid.getCoinIndex();
+        assertNotNull(index);
+        assertEquals(1, index.getRemainingInRegion(0, 0));
+        assertEquals(1, index.getRemainingInRegion(1, 0));
+        assertEquals(0, index.getRemainingInRegion(1, 1));
+        assertEquals(2, index.getRemaining());
+    }
+
+    private static void assertRegionCounts(CoinIndex index) {
+        index.coinAdded(0, 0);
+        index.coinAdded(31, 31);
+        index.coinAdded(32, 0);
+        index.coinAdded(99, 69);
+        index.coinRemoved(31, 31);
+
+        assertEquals(1, index.getRemainingInRegion(0, 0));
+        assertEquals(1, index.getRemainingInRegion(1, 0));
+        assertEquals(1, index.getRemainingAround(99, 69));
+        assertEquals(0, index.getRemainingInRegion(0, 1));
+        assertEquals(3, index.getRemaining());
+        assertEquals(1, index.getCollected());
+        assertEquals(4, index.getTotal());
+    }
+}
@@ -0,0 +1,106 @@
+package io.squid.cytale.level;
+
+import io.squid.cytale.entities.Location;
+import io.squid.cytale.grid.PackedLevelGrid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author TopeEstLa
+ */
+class BinaryLevelFormatTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRunPlane() throws IOException {
+        byte[] cells = new byte[40 * 30];
+        Arrays.fill(cells, 0, 40, (byte) 0);
+        Arrays.fill(cells, 40, cells.length, (byte) 1);
+        cells[77] |= PackedLevelGrid.COIN_BIT;
+        cells[cells.length - 1] |= PackedLevelGrid.COIN_BIT;
+        assertRoundTrips(new LevelTemplate(new PackedLevelGrid(40, 30, cells), 3, 4,
+                new long[]{Location.pack(39, 29), Location.pack(5, 1), Location.pack(5, 1)}));
+    }
+
+    @Test
+    void roundTripsPackedPlane() throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        byte[] cells = new byte[37 * 13];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) random.nextInt(4);
+            if (random.nextInt(3) == 0) {
+                cells[i] |= PackedLevelGrid.COIN_BIT;
+            }
+        }
+        cells[0] = 1;
+        assertRoundTrips(new LevelTemplate(new PackedLevelGrid(37, 13, cells), 0, 0, new long[]{Location.pack(36, 12)}));
+    }
+
+    @Test
+    void rejectsCoinPaddingBits() throws IOException {
+        byte[] bytes = this.writeEmpty(5, 3);
+        // the last coin byte covers cells 8 to 14, bit 7 is padding
+        bytes[bytes.length - 5] |= (byte) 0x80;
+        assertRejected(bytes);
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        byte[] bytes = this.writeEmpty(5, 3);
+        for (int size = 0; size < bytes.length; size++) {
+            assertRejected(Arrays.copyOf(bytes, size));
+        }
+    }
+
+    @Test
+    void rejectsInvalidEntityCount() throws IOException {
+        byte[] bytes = this.writeEmpty(5, 3);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 4, -1);
+        assertRejected(bytes);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 4, Integer.MAX_VALUE);
+        assertRejected(bytes);
+    }
+
+    private void assertRoundTrips(LevelTemplate template) throws IOException {
+        Path file = this.directory.resolve("level" + BinaryLevelFormat.EXTENSION);
+        BinaryLevelFormat.write(template, file);
+        LevelTemplate read = BinaryLevelFormat.read(file);
+
+        PackedLevelGrid layout = template.getLayout();
+        assertEquals(layout.getWidth(), read.getLayout().getWidth());
+        assertEquals(layout.getLength(), read.getLayout().getLength());
+        for (int i = 0; i < layout.getWidth() * layout.getLength(); i++) {
+            assertEquals(layout.getRaw(i), read.getLayout().getRaw(i), "cell " + i);
+        }
+        assertEquals(template.getSpawnX(), read.getSpawnX());
+        assertEquals(template.getSpawnY(), read.getSpawnY());
+        assertEquals(template.getMonsterCount(), read.getMonsterCount());
+        for (int i = 0; i < template.getMonsterCount(); i++) {
+            assertEquals(template.getMonsterSpawn(i), read.getMonsterSpawn(i));
+        }
+    }
+
+    private byte[] writeEmpty(int width, int length) throws IOException {
+        Path file = this.directory.resolve("empty" + BinaryLevelFormat.EXTENSION);
+        BinaryLevelFormat.write(new LevelTemplate(new PackedLevelGrid(width, length), 0, 0, new long[0]), file);
+        return Files.readAllBytes(file);
+    }
+
+    private void assertRejected(byte[] bytes) throws IOException {
+        Path file = this.directory.resolve("corrupt" + BinaryLevelFormat.EXTENSION);
+        Files.write(file, bytes);
+        assertThrows(IllegalArgumentException.class, () -> BinaryLevelFormat.read(file));
+    }
+}
@@ -0,0 +1,54 @@
+package io.squid.cytale.tick;
+
+import io.squid.cytale.entities.Level;
+import io.squid.cytale.entities.Player;
+import io.squid.cytale.grid.ChunkedLevelGrid;
+import io.squid.cytale.grid.PackedLevelGrid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author TopeEstLa
+ */
+class InterestAreaTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tracksMaximumWorld() {
+        int size = ChunkedLevelGrid.MAX_SIZE;
+        ChunkedLevelGrid grid = new ChunkedLevelGrid(size, size, 2, (chunkX, chunkY, chunk) -> {
+        }, this.directory);
+        Level level = new Level(grid, 5, 5, new Player("Player"), 1);
+        InterestArea area = new InterestArea(10, 8);
+        level.setInterestArea(area);
+        level.tickLevel();
+
+        assertTrue(area.isNear(5, 5));
+        assertTrue(area.isNear(size - 3, size - 3));
+        assertFalse(area.isNear(5, 1000));
+        assertFalse(area.isNear(size / 2, size / 2));
+    }
+
+    @Test
+    void tracksEveryLivingPlayer() {
+        Level level = new Level(new PackedLevelGrid(256, 256), 8, 8, new Player("First"), 1);
+        level.addPlayer(new Player("Second"), 200, 100);
+        Player dead = new Player("Dead", 0, 0);
+        level.addPlayer(dead, 100, 200);
+        InterestArea area = new InterestArea(4, 0);
+        area.update(level);
+
+        assertTrue(area.isNear(8, 8));
+        assertTrue(area.isNear(200, 100));
+        assertFalse(area.isNear(8, 100));
+        assertFalse(area.isNear(200, 8));
+        assertFalse(area.isNear(100, 200));
+    }
+}